@@ -0,0 +1,50 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class BookingServiceBenchmark {
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING"})
+    public String state;
+
+    @Param("20")
+    public int size;
+
+    private BookingService bookingService;
+    private int next;
+
+    @Setup
+    public void setUp(ShareItState shareIt) {
+        bookingService = shareIt.getBean(BookingService.class);
+    }
+
+    @Benchmark
+    public List<Booking> getBookingForUserByStatus(ShareItState shareIt) {
+        return bookingService.getBookingForUserByStatus(shareIt.userId(next++), state, 0, size);
+    }
+
+    @Benchmark
+    public List<Booking> getBookingForOwnerByStatus(ShareItState shareIt) {
+        return bookingService.getBookingForOwnerByStatus(shareIt.userId(next++), state, 0, size);
+    }
+}
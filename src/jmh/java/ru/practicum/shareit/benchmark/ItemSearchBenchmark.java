@@ -0,0 +1,96 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.dataset.DatasetGenerator;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItemSearch;
+import ru.practicum.shareit.item.search.ItemPopularity;
+import ru.practicum.shareit.item.search.ItemSearch;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ItemSearchBenchmark {
+    @Param({"index", "like", "fulltext"})
+    public String mode;
+
+    @Param("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1")
+    public String url;
+
+    @Param("postgres")
+    public String user;
+
+    @Param("postgres")
+    public String password;
+
+    @Param("42")
+    public long seed;
+
+    @Param("1000000")
+    public int items;
+
+    @Param({"drill", "sleeping bag", "ill", "a", "no such thing"})
+    public String text;
+
+    @Param("20")
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private ItemSearch itemSearch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("shareit.search.mode", mode);
+        if (url.startsWith("jdbc:postgresql:")) {
+            properties.put("spring.profiles.active", "default");
+            properties.put("spring.datasource.url", url);
+            properties.put("spring.datasource.username", user);
+            properties.put("spring.datasource.password", password);
+        }
+        context = ShareItState.start(properties);
+        new DatasetGenerator(context.getBean(JdbcTemplate.class)).generate(DatasetGenerator.Spec.builder()
+                .seed(seed)
+                .users(Math.max(1, items / 10))
+                .requests(0)
+                .items(items)
+                .bookings(0)
+                .comments(0)
+                .build());
+        context.getBean(ItemPopularity.class).rebuild();
+        context.getBeanProvider(IndexedItemSearch.class).ifAvailable(IndexedItemSearch::rebuild);
+        itemSearch = context.getBean(ItemSearch.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> search() {
+        return itemSearch.search(text, 0, size);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoBooking;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class ItemServiceBenchmark {
+    @Param("drill")
+    public String text;
+
+    @Param({"d", "dr", "dri"})
+    public String prefix;
+
+    @Param("20")
+    public int size;
+
+    private ItemService itemService;
+    private int next;
+
+    @Setup
+    public void setUp(ShareItState shareIt) {
+        itemService = shareIt.getBean(ItemService.class);
+    }
+
+    @Benchmark
+    public ItemDtoBooking getItem(ShareItState shareIt) {
+        long itemId = shareIt.itemId(next++);
+        return itemService.getItem(itemId, shareIt.ownerOf(itemId));
+    }
+
+    @Benchmark
+    public List<ItemDtoBooking> getItemsListForUser(ShareItState shareIt) {
+        return itemService.getItemsListForUser(shareIt.userId(next++), 0, size);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItemsForText() {
+        return itemService.searchItemsForText(text, 0, size);
+    }
+
+    @Benchmark
+    public List<String> suggestItemNames() {
+        return itemService.suggestItemNames(prefix, 10);
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.dataset.DatasetGenerator;
+import ru.practicum.shareit.item.search.IndexedItemSearch;
+import ru.practicum.shareit.item.search.ItemPopularity;
+import ru.practicum.shareit.item.search.ItemSuggester;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@State(Scope.Benchmark)
+public class ShareItState {
+    @Param("42")
+    public long seed;
+
+    @Param("1000")
+    public int users;
+
+    @Param("10000")
+    public int items;
+
+    @Param("50000")
+    public int bookings;
+
+    private ConfigurableApplicationContext context;
+    private long[] itemOwners;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = start(Map.of());
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(ItemPopularity.class).rebuild();
+        context.getBeanProvider(IndexedItemSearch.class).ifAvailable(IndexedItemSearch::rebuild);
+        context.getBean(ItemSuggester.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    static ConfigurableApplicationContext start(Map<String, String> overrides) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.profiles.active", "test");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+        properties.put("spring.jpa.open-in-view", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.org.springframework.transaction.interceptor", "WARN");
+        properties.put("logging.level.org.springframework.orm.jpa.JpaTransactionManager", "WARN");
+        properties.putAll(overrides);
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .run(properties.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public long userId(int n) {
+        return Math.floorMod(n, users) + 1;
+    }
+
+    public long itemId(int n) {
+        return Math.floorMod(n, items) + 1;
+    }
+
+    public long ownerOf(long itemId) {
+        return itemOwners[(int) itemId - 1];
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        new DatasetGenerator(jdbcTemplate).generate(DatasetGenerator.Spec.builder()
+                .seed(seed)
+                .users(users)
+                .requests(users / 2)
+                .items(items)
+                .bookings(bookings)
+                .comments(bookings / 5)
+                .build());
+        itemOwners = new long[items];
+        jdbcTemplate.query("select id, owner_id from items", rs -> {
+            itemOwners[(int) rs.getLong(1) - 1] = rs.getLong(2);
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.dataset.DatasetGenerator;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.EmailFilter;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class UserSignupBenchmark {
+    @Param({"true", "false"})
+    public boolean emailFilter;
+
+    @Param({"0.1", "0.5", "0.9"})
+    public double duplicateRate;
+
+    @Param("100000")
+    public int users;
+
+    @Param("42")
+    public long seed;
+
+    private final AtomicLong signups = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private String[] existing;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ShareItState.start(Map.of("shareit.user.email-filter.enabled", String.valueOf(emailFilter)));
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        new DatasetGenerator(jdbcTemplate).generate(DatasetGenerator.Spec.builder()
+                .seed(seed)
+                .users(users)
+                .requests(0)
+                .items(0)
+                .bookings(0)
+                .comments(0)
+                .build());
+        context.getBean(EmailFilter.class).rebuild();
+        existing = jdbcTemplate.queryForList("select email from users", String.class).toArray(new String[0]);
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User createUser() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long n = signups.incrementAndGet();
+        String email = random.nextDouble() < duplicateRate
+                ? existing[random.nextInt(existing.length)]
+                : "signup" + n + "@shareit.test";
+        try {
+            return userService.createUser(new User(null, "signup" + n, email));
+        } catch (ConflictException e) {
+            return null;
+        }
+    }
+}
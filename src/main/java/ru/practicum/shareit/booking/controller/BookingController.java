@@ -40,7 +40,11 @@ public class BookingController {
     public List<Booking> getBookingForUserByStatus(@RequestHeader(sharerUserId) Long userId,
                                                    @RequestParam(value = "state", required = false) String status,
                                                    @RequestParam(defaultValue = "0") Integer from,
-                                                   @RequestParam(defaultValue = "20") Integer size) {
+                                                   @RequestParam(defaultValue = "20") Integer size,
+                                                   @RequestParam(required = false) String after) {
+        if (after != null) {
+            return bookingService.getBookingForUserByStatusAfter(userId, status, after, size);
+        }
         return bookingService.getBookingForUserByStatus(userId, status, from, size);
     }
 
@@ -48,7 +52,11 @@ public class BookingController {
     public List<Booking> getBookingForOwnerByStatus(@RequestHeader(sharerUserId) Long userId,
                                                     @RequestParam(value = "state", required = false) String status,
                                                     @RequestParam(defaultValue = "0") Integer from,
-                                                    @RequestParam(defaultValue = "20") Integer size) {
+                                                    @RequestParam(defaultValue = "20") Integer size,
+                                                    @RequestParam(required = false) String after) {
+        if (after != null) {
+            return bookingService.getBookingForOwnerByStatusAfter(userId, status, after, size);
+        }
         return bookingService.getBookingForOwnerByStatus(userId, status, from, size);
     }
 }
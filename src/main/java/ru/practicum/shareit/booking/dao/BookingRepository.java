@@ -2,23 +2,99 @@ package ru.practicum.shareit.booking.dao;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    String WITH_ITEM_AND_BOOKER = "Booking.withItemAndBooker";
 
+    @Override
+    @EntityGraph(WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph(WITH_ITEM_AND_BOOKER)
     Page<Booking> findByBooker(User user, Pageable pageable);
 
+    @EntityGraph(WITH_ITEM_AND_BOOKER)
+    List<Booking> findByBookerAndStartBeforeAndEndAfter(User booker, LocalDateTime start, LocalDateTime end,
+                                                        Pageable pageable);
+
+    @EntityGraph(WITH_ITEM_AND_BOOKER)
+    List<Booking> findByBookerAndEndBefore(User booker, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(WITH_ITEM_AND_BOOKER)
+    List<Booking> findByBookerAndStartAfter(User booker, LocalDateTime start, Pageable pageable);
+
+    @EntityGraph(WITH_ITEM_AND_BOOKER)
+    List<Booking> findByBookerAndStatus(User booker, StatusBooking status, Pageable pageable);
+
+    @EntityGraph(WITH_ITEM_AND_BOOKER)
+    List<Booking> findByItemOwner(User owner, Pageable pageable);
+
+    @EntityGraph(WITH_ITEM_AND_BOOKER)
+    List<Booking> findByItemOwnerAndStartBeforeAndEndAfter(User owner, LocalDateTime start, LocalDateTime end,
+                                                           Pageable pageable);
+
+    @EntityGraph(WITH_ITEM_AND_BOOKER)
+    List<Booking> findByItemOwnerAndEndBefore(User owner, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(WITH_ITEM_AND_BOOKER)
+    List<Booking> findByItemOwnerAndStartAfter(User owner, LocalDateTime start, Pageable pageable);
+
+    @EntityGraph(WITH_ITEM_AND_BOOKER)
+    List<Booking> findByItemOwnerAndStatus(User owner, StatusBooking status, Pageable pageable);
+
+    @EntityGraph(WITH_ITEM_AND_BOOKER)
     Page<Booking> findByItemIn(List<Item> items, Pageable pageable);
 
 
+    @EntityGraph(WITH_ITEM_AND_BOOKER)
     List<Booking> findByItemOrderByStartAsc(Item items);
 
+    @EntityGraph(WITH_ITEM_AND_BOOKER)
     List<Booking> findByItemOrderByEndDesc(Item items);
 
     List<Booking> findByItemAndBooker(Item item, User booker);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = ?4, b.version = b.version + 1 " +
+            "where b.id = ?1 and b.status = ?3 " +
+            "and b.item.id in (select i.id from Item i where i.owner.id = ?2)")
+    int updateStatus(Long bookingId, Long ownerId, StatusBooking expected, StatusBooking status);
+
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Long itemId, Collection<StatusBooking> statuses,
+                                                               LocalDateTime end, LocalDateTime start);
+
+    Optional<Booking> findFirstByItemAndStartAfterAndStatusNotOrderByStartAsc(Item item, LocalDateTime now,
+                                                                             StatusBooking status);
+
+    Optional<Booking> findFirstByItemAndStartBeforeAndStatusNotOrderByEndDesc(Item item, LocalDateTime now,
+                                                                             StatusBooking status);
+
+    @Query(value = "select b.id as \"id\", b.booker_id as \"bookerId\", b.item_id as \"itemId\" " +
+            "from (select bk.id, bk.booker_id, bk.item_id, " +
+            "row_number() over (partition by bk.item_id order by bk.start_date asc, bk.id asc) as rn " +
+            "from bookings bk " +
+            "where bk.item_id in (?1) and bk.start_date > ?2 and bk.status <> 'REJECTED') b " +
+            "where b.rn = 1", nativeQuery = true)
+    List<BookingShort> findNextForItems(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query(value = "select b.id as \"id\", b.booker_id as \"bookerId\", b.item_id as \"itemId\" " +
+            "from (select bk.id, bk.booker_id, bk.item_id, " +
+            "row_number() over (partition by bk.item_id order by bk.end_date desc, bk.id desc) as rn " +
+            "from bookings bk " +
+            "where bk.item_id in (?1) and bk.start_date < ?2 and bk.status <> 'REJECTED') b " +
+            "where b.rn = 1", nativeQuery = true)
+    List<BookingShort> findLastForItems(Collection<Long> itemIds, LocalDateTime now);
 }
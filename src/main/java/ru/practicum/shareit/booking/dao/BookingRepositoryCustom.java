@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dao;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    List<Booking> findByBookerAfter(User booker, StatusBooking state, LocalDateTime now,
+                                    PageCursor after, int size);
+
+    List<Booking> findByOwnerAfter(User owner, StatusBooking state, LocalDateTime now,
+                                   PageCursor after, int size);
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.dao;
+
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private final EntityManager em;
+
+    @Override
+    public List<Booking> findByBookerAfter(User booker, StatusBooking state, LocalDateTime now,
+                                           PageCursor after, int size) {
+        return findAfter(false, booker, state, now, after, size);
+    }
+
+    @Override
+    public List<Booking> findByOwnerAfter(User owner, StatusBooking state, LocalDateTime now,
+                                          PageCursor after, int size) {
+        return findAfter(true, owner, state, now, after, size);
+    }
+
+    private List<Booking> findAfter(boolean byOwner, User user, StatusBooking state, LocalDateTime now,
+                                    PageCursor after, int size) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (byOwner) {
+            predicates.add(cb.equal(booking.get("item").get("owner"), user));
+        } else {
+            predicates.add(cb.equal(booking.get("booker"), user));
+        }
+        switch (state) {
+            case CURRENT:
+                predicates.add(cb.lessThan(start, now));
+                predicates.add(cb.greaterThan(end, now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, now));
+                break;
+            case WAITING:
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), state));
+                break;
+            default:
+                break;
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(start, after.getPosition()),
+                    cb.and(cb.equal(start, after.getPosition()), cb.lessThan(id, after.getId()))));
+        }
+        query.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+        return em.createQuery(query)
+                .setHint("javax.persistence.fetchgraph", em.getEntityGraph(BookingRepository.WITH_ITEM_AND_BOOKER))
+                .setMaxResults(size)
+                .getResultList();
+    }
+}
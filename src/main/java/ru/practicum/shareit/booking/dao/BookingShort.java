@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.dao;
+
+public interface BookingShort {
+    Long getId();
+
+    Long getBookerId();
+
+    Long getItemId();
+}
@@ -15,4 +15,8 @@ public interface BookingService {
     List<Booking> getBookingForUserByStatus(Long user, String status, Integer from, Integer size);
 
     List<Booking> getBookingForOwnerByStatus(Long userId, String status, Integer from, Integer size);
+
+    List<Booking> getBookingForUserByStatusAfter(Long user, String status, String after, Integer size);
+
+    List<Booking> getBookingForOwnerByStatusAfter(Long userId, String status, String after, Integer size);
 }
@@ -11,17 +11,19 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapping;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemPopularity;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.CallerContext;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -30,20 +32,28 @@ import java.util.stream.Collectors;
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final CallerContext callerContext;
+    private final ItemPopularity itemPopularity;
 
     @Transactional
     @Override
     public Booking createBooking(BookingDto booking, Long userId) {
-        checkBookingForCreate(booking, userId);
+        User booker = checkBookingForCreate(booking, userId);
         Booking result = BookingMapping.toBooking(booking);
-        result.setItem(itemRepository.findById(booking.getItemId()).orElseThrow(() -> new NotFoundException("")));
-        result.setBooker(userRepository.findById(userId).orElseThrow(() -> new NotFoundException("")));
-        if (result.getBooker().equals(result.getItem().getOwner())) {
+        result.setItem(itemRepository.findByIdForUpdate(booking.getItemId())
+                .orElseThrow(() -> new NotFoundException("")));
+        result.setBooker(booker);
+        if (Objects.equals(result.getBooker().getId(), result.getItem().getOwner().getId())) {
             throw new NotFoundException("");
         }
+        if (bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(result.getItem().getId(),
+                List.of(StatusBooking.WAITING, StatusBooking.APPROVED), result.getEnd(), result.getStart())) {
+            throw new ConflictException("вещь уже забронирована на это время");
+        }
         result.setStatus(StatusBooking.WAITING);
-        return bookingRepository.save(result);
+        Booking saved = bookingRepository.save(result);
+        itemPopularity.recordBooking(saved.getItem());
+        return saved;
     }
 
     @Transactional
@@ -52,17 +62,19 @@ public class BookingServiceImpl implements BookingService {
         if (userId == null || bookingId == null || status == null) {
             throw new ValidationException("");
         }
+        StatusBooking target = status ? StatusBooking.APPROVED : StatusBooking.REJECTED;
+        int updated = bookingRepository.updateStatus(bookingId, userId, StatusBooking.WAITING, target);
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundException(""));
         if (!Objects.equals(booking.getItem().getOwner().getId(), userId)) {
             throw new NotFoundException("");
         }
-        if (booking.getStatus().name().equals("APPROVED")) {
-            throw new ValidationException("");
+        if (updated == 0) {
+            throw new ConflictException("");
+        }
+        if (target == StatusBooking.REJECTED) {
+            itemPopularity.forgetBooking(booking.getItem());
         }
-        if (status) {
-            booking.setStatus(StatusBooking.APPROVED);
-        } else booking.setStatus(StatusBooking.REJECTED);
-        return bookingRepository.save(booking);
+        return booking;
     }
 
     @Override
@@ -83,7 +95,7 @@ public class BookingServiceImpl implements BookingService {
         if (size < 1 || from < 0) {
             throw new ValidationException("");
         }
-        User booker = userRepository.findById(user).orElseThrow(() -> new NotFoundException(""));
+        User booker = callerContext.find(user).orElseThrow(() -> new NotFoundException(""));
         if (status == null || status.equals("") || status.equals(StatusBooking.ALL.name())) {
             List<Booking> res = bookingRepository
                     .findByBooker(booker, PageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "start")))
@@ -101,45 +113,22 @@ public class BookingServiceImpl implements BookingService {
             }
             return res;
         }
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "start"));
         if (status.equals(StatusBooking.CURRENT.name())) {
-            List<Booking> res = bookingRepository
-                    .findByBooker(booker, PageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "start")))
-                    .stream()
-                    .filter(booking -> booking.getStart().isBefore(LocalDateTime.now())
-                            && booking.getEnd().isAfter(LocalDateTime.now())).collect(Collectors.toList());
-            return res;
+            return bookingRepository.findByBookerAndStartBeforeAndEndAfter(booker, now, now, page);
         }
         if (status.equals(StatusBooking.PAST.name())) {
-            List<Booking> res = bookingRepository
-                    .findByBooker(booker, PageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "start")))
-                    .stream()
-                    .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now()))
-                    .collect(Collectors.toList());
-            return res;
+            return bookingRepository.findByBookerAndEndBefore(booker, now, page);
         }
         if (status.equals(StatusBooking.FUTURE.name())) {
-            List<Booking> res = bookingRepository
-                    .findByBooker(booker, PageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "start")))
-                    .stream()
-                    .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                    .collect(Collectors.toList());
-            return res;
+            return bookingRepository.findByBookerAndStartAfter(booker, now, page);
         }
         if (status.equals(StatusBooking.WAITING.name())) {
-            List<Booking> res = bookingRepository
-                    .findByBooker(booker, PageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "start")))
-                    .stream()
-                    .filter(booking -> booking.getStatus().name().equals(StatusBooking.WAITING.name()))
-                    .collect(Collectors.toList());
-            return res;
+            return bookingRepository.findByBookerAndStatus(booker, StatusBooking.WAITING, page);
         }
         if (status.equals(StatusBooking.REJECTED.name())) {
-            List<Booking> res = bookingRepository
-                    .findByBooker(booker, PageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "start")))
-                    .stream()
-                    .filter(booking -> booking.getStatus().name().equals(StatusBooking.REJECTED.name()))
-                    .collect(Collectors.toList());
-            return res;
+            return bookingRepository.findByBookerAndStatus(booker, StatusBooking.REJECTED, page);
         }
         throw new ValidationException("Unknown state: " + status);
     }
@@ -149,60 +138,75 @@ public class BookingServiceImpl implements BookingService {
         if (size < 1 || from < 0) {
             throw new ValidationException("");
         }
-        User owner = userRepository.findById(userId).orElseThrow(() -> new NotFoundException(""));
-        List<Item> itemsOwner = itemRepository.findByOwner(owner, PageRequest.of(0, 20)).stream()
-                .collect(Collectors.toList());
+        User owner = callerContext.find(userId).orElseThrow(() -> new NotFoundException(""));
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "start"));
         if (status == null || status.equals("") || status.equals("ALL")) {
-            List<Booking> res = bookingRepository
-                    .findByItemIn(itemsOwner, PageRequest
-                            .of(from, size, Sort.by(Sort.Direction.DESC, "start"))).getContent();
-            return res;
+            return bookingRepository.findByItemOwner(owner, page);
         }
         if (status.equals("CURRENT")) {
-            List<Booking> res = bookingRepository.findByItemIn(itemsOwner, PageRequest
-                            .of(from, size, Sort.by(Sort.Direction.DESC, "start"))).stream()
-                    .filter(booking -> booking.getStart().isBefore(LocalDateTime.now())
-                            && booking.getEnd().isAfter(LocalDateTime.now()))
-                    .collect(Collectors.toList());
-            return res;
+            return bookingRepository.findByItemOwnerAndStartBeforeAndEndAfter(owner, now, now, page);
         }
         if (status.equals("PAST")) {
-            List<Booking> res = bookingRepository.findByItemIn(itemsOwner, PageRequest
-                            .of(from, size, Sort.by(Sort.Direction.DESC, "start"))).stream()
-                    .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now()))
-                    .collect(Collectors.toList());
-            return res;
+            return bookingRepository.findByItemOwnerAndEndBefore(owner, now, page);
         }
         if (status.equals("FUTURE")) {
-            List<Booking> res = bookingRepository.findByItemIn(itemsOwner, PageRequest
-                            .of(from, size, Sort.by(Sort.Direction.DESC, "start"))).stream()
-                    .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                    .collect(Collectors.toList());
-            return res;
+            return bookingRepository.findByItemOwnerAndStartAfter(owner, now, page);
         }
         if (status.equals("WAITING")) {
-            List<Booking> res = bookingRepository.findByItemIn(itemsOwner, PageRequest
-                            .of(from, size, Sort.by(Sort.Direction.DESC, "start"))).stream()
-                    .filter(booking -> booking.getStatus().name().equals("WAITING"))
-                    .collect(Collectors.toList());
-            return res;
+            return bookingRepository.findByItemOwnerAndStatus(owner, StatusBooking.WAITING, page);
         }
         if (status.equals("REJECTED")) {
-            List<Booking> res = bookingRepository.findByItemIn(itemsOwner, PageRequest
-                            .of(from, size, Sort.by(Sort.Direction.DESC, "start"))).stream()
-                    .filter(booking -> booking.getStatus().name().equals("REJECTED"))
-                    .collect(Collectors.toList());
-            return res;
+            return bookingRepository.findByItemOwnerAndStatus(owner, StatusBooking.REJECTED, page);
         }
         throw new ValidationException("Unknown state: " + status);
     }
 
+    @Override
+    public List<Booking> getBookingForUserByStatusAfter(Long user, String status, String after, Integer size) {
+        if (size < 1) {
+            throw new ValidationException("");
+        }
+        StatusBooking state = parseState(status);
+        PageCursor cursor = PageCursor.parse(after);
+        User booker = callerContext.find(user).orElseThrow(() -> new NotFoundException(""));
+        return bookingRepository.findByBookerAfter(booker, state, LocalDateTime.now(), cursor, size);
+    }
+
+    @Override
+    public List<Booking> getBookingForOwnerByStatusAfter(Long userId, String status, String after, Integer size) {
+        if (size < 1) {
+            throw new ValidationException("");
+        }
+        StatusBooking state = parseState(status);
+        PageCursor cursor = PageCursor.parse(after);
+        User owner = callerContext.find(userId).orElseThrow(() -> new NotFoundException(""));
+        return bookingRepository.findByOwnerAfter(owner, state, LocalDateTime.now(), cursor, size);
+    }
+
+    private StatusBooking parseState(String status) {
+        if (status == null || status.equals("")) {
+            return StatusBooking.ALL;
+        }
+        switch (status) {
+            case "ALL":
+            case "CURRENT":
+            case "PAST":
+            case "FUTURE":
+            case "WAITING":
+            case "REJECTED":
+                return StatusBooking.valueOf(status);
+            default:
+                throw new ValidationException("Unknown state: " + status);
+        }
+    }
+
 
-    private void checkBookingForCreate(BookingDto booking, Long userId) {
+    private User checkBookingForCreate(BookingDto booking, Long userId) {
         if (userId == null) {
             throw new ValidationException("юзер отсутствует");
         }
-        userRepository.findById(userId)
+        User booker = callerContext.find(userId)
                 .orElseThrow(() -> new NotFoundException("такого пользователя не существует"));
 
         if (booking.getItemId() == null) {
@@ -220,6 +224,7 @@ public class BookingServiceImpl implements BookingService {
                 || booking.getEnd().isBefore(booking.getStart()) || booking.getStart().isEqual(booking.getEnd())) {
             throw new ValidationException("");
         }
+        return booker;
     }
 
 
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class ConflictException extends ValidationException {
+    public ConflictException(String massage) {
+        super(massage);
+    }
+}
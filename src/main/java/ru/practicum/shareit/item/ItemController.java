@@ -48,7 +48,11 @@ public class ItemController {
     @GetMapping
     public List<ItemDtoBooking> getItemsListForUser(@RequestHeader(sharerUserId) Long userId,
                                                     @RequestParam(defaultValue = "0") Integer from,
-                                                    @RequestParam(defaultValue = "20") Integer size) {
+                                                    @RequestParam(defaultValue = "20") Integer size,
+                                                    @RequestParam(required = false) Long after) {
+        if (after != null) {
+            return itemService.getItemsListForUserAfter(userId, after, size);
+        }
         return itemService.getItemsListForUser(userId, from, size);
     }
 
@@ -58,4 +62,10 @@ public class ItemController {
                                             @RequestParam(defaultValue = "20") Integer size) {
         return itemService.searchItemsForText(text, from, size);
     }
+
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(@RequestParam("prefix") String prefix,
+                                         @RequestParam(defaultValue = "10") Integer size) {
+        return itemService.suggestItemNames(prefix, size);
+    }
 }
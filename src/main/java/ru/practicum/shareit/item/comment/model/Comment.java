@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.comment.model;
 
 import lombok.*;
+import org.hibernate.Hibernate;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -23,11 +24,13 @@ public class Comment {
     @Column(name = "text")
     private String text;
 
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", referencedColumnName = "id")
     private Item item;
 
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", referencedColumnName = "id")
     private User author;
 
@@ -37,13 +40,14 @@ public class Comment {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
         Comment comment = (Comment) o;
-        return Objects.equals(id, comment.id) && Objects.equals(text, comment.text) && Objects.equals(item, comment.item) && Objects.equals(author, comment.author) && Objects.equals(created, comment.created);
+        return Objects.equals(id, comment.getId()) && Objects.equals(text, comment.getText())
+                && Objects.equals(created, comment.getCreated());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, text, item, author, created);
+        return Objects.hash(id, text, created);
     }
 }
@@ -2,22 +2,50 @@ package ru.practicum.shareit.item.dao;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
+    String WITH_OWNER_AND_REQUEST = "Item.withOwnerAndRequest";
+
+    @Override
+    @EntityGraph(WITH_OWNER_AND_REQUEST)
+    Optional<Item> findById(Long id);
+
+    @EntityGraph(WITH_OWNER_AND_REQUEST)
     Page<Item> findByOwner(User owner, Pageable pageable);
 
-    @Query(" select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%'))")
-    Page<Item> search(String text, Pageable pageable);
+    @EntityGraph(WITH_OWNER_AND_REQUEST)
+    List<Item> findByOwnerAndIdGreaterThan(User owner, Long id, Pageable pageable);
+
+    @Query(value = "select i.* from items i " +
+            "where i.is_available and i.search_vector @@ websearch_to_tsquery('simple', ?1) " +
+            "order by ts_rank(i.search_vector, websearch_to_tsquery('simple', ?1)) desc, i.id " +
+            "limit ?2 offset ?3", nativeQuery = true)
+    List<Item> searchFullText(String text, int limit, long offset);
 
     List<Item> findByRequest(ItemRequest itemRequest);
 
+    List<Item> findByRequestIn(Collection<ItemRequest> itemRequests);
+
+    @Query(value = "select i.* from items i join request_matches m on m.item_id = i.id " +
+            "where m.request_id = ?1 and i.is_available " +
+            "and not exists (select 1 from items a where a.request_id = m.request_id) " +
+            "order by m.score desc, i.id", nativeQuery = true)
+    List<Item> findMatchedForRequest(Long requestId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long id);
+
 }
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.dao;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.query.ItemQuery;
+
+import java.util.List;
+
+public interface ItemRepositoryCustom {
+    List<Item> searchAvailable(ItemQuery query, Pageable pageable);
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.query.ItemQuery;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+@RequiredArgsConstructor
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+    private static final char ESCAPE = '\\';
+
+    private final EntityManager em;
+
+    @Override
+    public List<Item> searchAvailable(ItemQuery query, Pageable pageable) {
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Item> criteria = cb.createQuery(Item.class);
+        Root<Item> item = criteria.from(Item.class);
+
+        List<Predicate> alternatives = new ArrayList<>();
+        for (List<ItemQuery.Clause> alternative : query.getAlternatives()) {
+            List<Predicate> clauses = new ArrayList<>();
+            for (ItemQuery.Clause clause : alternative) {
+                String pattern = "%" + escape(clause.getText().toUpperCase(Locale.ROOT)) + "%";
+                Predicate matches = cb.or(
+                        cb.like(cb.upper(item.<String>get("name")), pattern, ESCAPE),
+                        cb.like(cb.upper(item.<String>get("description")), pattern, ESCAPE));
+                clauses.add(clause.isNegated() ? cb.not(matches) : matches);
+            }
+            alternatives.add(cb.and(clauses.toArray(new Predicate[0])));
+        }
+        criteria.select(item)
+                .where(cb.isTrue(item.<Boolean>get("available")), cb.or(alternatives.toArray(new Predicate[0])))
+                .orderBy(cb.asc(item.get("id")));
+        return em.createQuery(criteria)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item.query;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Getter
+@RequiredArgsConstructor
+public class ItemQuery {
+    private final List<List<Clause>> alternatives;
+
+    public static ItemQuery parse(String text) {
+        List<List<Clause>> alternatives = new ArrayList<>();
+        List<Clause> current = new ArrayList<>();
+        boolean negated = false;
+        int i = 0;
+        int length = text == null ? 0 : text.length();
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '-' && i + 1 < length && text.charAt(i + 1) == '"') {
+                negated = true;
+                i++;
+            } else if (c == '"') {
+                int end = text.indexOf('"', i + 1);
+                end = end < 0 ? length : end;
+                String phrase = String.join(" ", text.substring(i + 1, end).trim().split("\\s+"));
+                if (!phrase.isEmpty()) {
+                    current.add(new Clause(phrase, negated));
+                }
+                negated = false;
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < length && !Character.isWhitespace(text.charAt(end)) && text.charAt(end) != '"') {
+                    end++;
+                }
+                String token = text.substring(i, end);
+                i = end;
+                if (token.equals("OR")) {
+                    addAlternative(alternatives, current);
+                    current = new ArrayList<>();
+                    negated = false;
+                } else if (token.equals("NOT")) {
+                    negated = true;
+                } else if (token.startsWith("-") && token.length() > 1) {
+                    current.add(new Clause(token.substring(1), true));
+                    negated = false;
+                } else if (!token.equals("AND")) {
+                    current.add(new Clause(token, negated));
+                    negated = false;
+                }
+            }
+        }
+        addAlternative(alternatives, current);
+        return new ItemQuery(alternatives);
+    }
+
+    public boolean isEmpty() {
+        return alternatives.isEmpty();
+    }
+
+    public String toWebSearch() {
+        return alternatives.stream()
+                .map(alternative -> alternative.stream()
+                        .map(clause -> (clause.isNegated() ? "-" : "") + '"' + clause.getText() + '"')
+                        .collect(Collectors.joining(" ")))
+                .collect(Collectors.joining(" or "));
+    }
+
+    private static void addAlternative(List<List<Clause>> alternatives, List<Clause> clauses) {
+        if (clauses.stream().anyMatch(clause -> !clause.isNegated())) {
+            alternatives.add(clauses);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Clause {
+        private final String text;
+        private final boolean negated;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.query.ItemQuery;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "fulltext")
+@RequiredArgsConstructor
+public class FullTextItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+    private final DataSource dataSource;
+    private boolean postgres;
+
+    @PostConstruct
+    public void detectDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        }
+        if (!postgres) {
+            log.warn("Полнотекстовый поиск доступен только в PostgreSQL, используется поиск по подстроке");
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, Integer from, Integer size) {
+        ItemQuery query = ItemQuery.parse(text);
+        if (!postgres) {
+            return itemRepository.searchAvailable(query, PageRequest.of(from, size));
+        }
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        return itemRepository.searchFullText(query.toWebSearch(), size, (long) from * size);
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "index", matchIfMissing = true)
+@RequiredArgsConstructor
+public class IndexedItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemPopularity itemPopularity;
+    private final Object updates = new Object();
+    private volatile ItemSearchIndex index = new ItemSearchIndex();
+    private Map<Long, String> pending;
+
+    @Override
+    public List<Item> search(String text, Integer from, Integer size) {
+        List<Long> ids = index.search(text, (long) from * size, size, itemPopularity::score);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void index(Item item) {
+        String folded = Boolean.TRUE.equals(item.getAvailable())
+                ? ItemSearchIndex.document(item.getName(), item.getDescription())
+                : null;
+        String previous = apply(item.getId(), folded);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        revert(item.getId(), folded, previous);
+                    }
+                }
+            });
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long begin = System.currentTimeMillis();
+        ItemSearchIndex rebuilt = new ItemSearchIndex();
+        synchronized (updates) {
+            pending = new HashMap<>();
+        }
+        jdbcTemplate.query("select id, name, description from items where is_available = true order by id",
+                rs -> {
+                    rebuilt.put(rs.getLong("id"), rs.getString("name"), rs.getString("description"));
+                });
+        synchronized (updates) {
+            pending.forEach(rebuilt::restore);
+            pending = null;
+            index = rebuilt;
+        }
+        log.info("Поисковый индекс вещей построен: {} вещей за {} мс", rebuilt.size(),
+                System.currentTimeMillis() - begin);
+    }
+
+    private String apply(long id, String folded) {
+        synchronized (updates) {
+            String previous = index.folded(id);
+            index.restore(id, folded);
+            if (pending != null) {
+                pending.put(id, folded);
+            }
+            return previous;
+        }
+    }
+
+    private void revert(long id, String applied, String previous) {
+        synchronized (updates) {
+            if (Objects.equals(index.folded(id), applied)) {
+                apply(id, previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemPopularity {
+    private static final int COMMENT_WEIGHT = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemSearchCache itemSearchCache;
+    private final Object updates = new Object();
+    private volatile Map<Long, AtomicLong> counters = new ConcurrentHashMap<>();
+    private Map<Long, Long> pending;
+
+    public double score(long itemId) {
+        AtomicLong counter = counters.get(itemId);
+        return counter == null ? 0 : Math.log1p(Math.max(0, counter.get()));
+    }
+
+    public void recordBooking(Item item) {
+        record(item, 1);
+    }
+
+    public void forgetBooking(Item item) {
+        record(item, -1);
+    }
+
+    public void recordComment(Item item) {
+        record(item, COMMENT_WEIGHT);
+    }
+
+    private void record(Item item, int weight) {
+        Long itemId = item.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(itemId, weight);
+        } else {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(itemId, weight);
+                }
+            });
+        }
+        itemSearchCache.invalidate(ItemMapper.toItemDto(item), null);
+    }
+
+    private void apply(Long itemId, long weight) {
+        synchronized (updates) {
+            counters.computeIfAbsent(itemId, id -> new AtomicLong()).addAndGet(weight);
+            if (pending != null) {
+                pending.merge(itemId, weight, Long::sum);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long begin = System.currentTimeMillis();
+        Map<Long, AtomicLong> rebuilt = new ConcurrentHashMap<>();
+        synchronized (updates) {
+            pending = new HashMap<>();
+        }
+        jdbcTemplate.query("select item_id, count(*) as total from bookings " +
+                        "where status <> 'REJECTED' group by item_id",
+                rs -> {
+                    rebuilt.computeIfAbsent(rs.getLong("item_id"), id -> new AtomicLong())
+                            .addAndGet(rs.getLong("total"));
+                });
+        jdbcTemplate.query("select item_id, count(*) as total from comments group by item_id",
+                rs -> {
+                    rebuilt.computeIfAbsent(rs.getLong("item_id"), id -> new AtomicLong())
+                            .addAndGet(rs.getLong("total") * COMMENT_WEIGHT);
+                });
+        synchronized (updates) {
+            pending.forEach((itemId, weight) -> rebuilt.computeIfAbsent(itemId, id -> new AtomicLong())
+                    .addAndGet(weight));
+            pending = null;
+            counters = rebuilt;
+        }
+        log.info("Счётчики популярности загружены: {} вещей за {} мс", rebuilt.size(),
+                System.currentTimeMillis() - begin);
+    }
+}
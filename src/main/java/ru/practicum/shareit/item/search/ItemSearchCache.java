@@ -0,0 +1,279 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.query.ItemQuery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+public class ItemSearchCache implements MeterBinder {
+    private static final String NAME = "items.search";
+    private static final char SEPARATOR = '\u0000';
+    private static final int ENTRY_OVERHEAD = 96;
+    private static final int ITEM_OVERHEAD = 64;
+    private static final int MAX_PART = 32;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Part> parts = new HashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long bytes;
+
+    public ItemSearchCache(@Value("${shareit.search.cache.max-entries:10000}") int maxEntries,
+                           @Value("${shareit.search.cache.max-bytes:16777216}") long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    public List<ItemDto> get(String text, Integer from, Integer size, Supplier<List<ItemDto>> loader) {
+        ItemQuery query = ItemQuery.parse(text);
+        if (maxEntries < 1 || query.isEmpty()) {
+            return loader.get();
+        }
+        String[] queryParts = parts(query);
+        if (Arrays.stream(queryParts).anyMatch(part -> part.length() > MAX_PART)) {
+            return loader.get();
+        }
+        String key = query.toWebSearch().toUpperCase(Locale.ROOT) + SEPARATOR + from + SEPARATOR + size;
+        long[] versions = new long[queryParts.length];
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && isCurrent(entry)) {
+                hits.incrementAndGet();
+                return new ArrayList<>(entry.items);
+            }
+            if (entry != null) {
+                remove(key);
+            }
+            for (int i = 0; i < queryParts.length; i++) {
+                Part part = parts.computeIfAbsent(queryParts[i], word -> new Part());
+                part.references++;
+                versions[i] = part.version;
+            }
+        }
+        misses.incrementAndGet();
+        List<ItemDto> items;
+        try {
+            items = loader.get();
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                release(queryParts);
+            }
+            throw e;
+        }
+        put(key, new Entry(queryParts, versions, List.copyOf(items), weight(key, items)));
+        return items;
+    }
+
+    public void invalidate(ItemDto before, ItemDto after) {
+        Set<String> words = new HashSet<>();
+        for (ItemDto item : new ItemDto[]{before, after}) {
+            if (item != null && Boolean.TRUE.equals(item.getAvailable())) {
+                words.addAll(Arrays.asList(fold(item.getName()).split("\\s+")));
+                words.addAll(Arrays.asList(fold(item.getDescription()).split("\\s+")));
+            }
+        }
+        words.remove("");
+        if (words.isEmpty()) {
+            return;
+        }
+        bump(words);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    bump(words);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            evictions.addAndGet(entries.size());
+            for (Entry entry : entries.values()) {
+                release(entry.parts);
+            }
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tags("cache", NAME, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", NAME, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tags("cache", NAME)
+                .register(registry);
+        Gauge.builder("cache.size", this, ItemSearchCache::size)
+                .tags("cache", NAME)
+                .register(registry);
+        Gauge.builder("cache.bytes", this, ItemSearchCache::bytes)
+                .tags("cache", NAME)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long bytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    private void put(String key, Entry entry) {
+        synchronized (entries) {
+            remove(key);
+            entries.put(key, entry);
+            bytes += entry.weight;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                bytes -= evicted.weight;
+                release(evicted.parts);
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private void remove(String key) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            bytes -= previous.weight;
+            release(previous.parts);
+        }
+    }
+
+    private void release(String[] released) {
+        for (String text : released) {
+            Part part = parts.get(text);
+            if (--part.references == 0) {
+                parts.remove(text);
+            }
+        }
+    }
+
+    private void bump(Set<String> words) {
+        synchronized (entries) {
+            if (parts.isEmpty()) {
+                return;
+            }
+            for (String word : words) {
+                for (int start = 0; start < word.length(); start++) {
+                    for (int end = start + 1; end <= Math.min(word.length(), start + MAX_PART); end++) {
+                        Part part = parts.get(word.substring(start, end));
+                        if (part != null) {
+                            part.version++;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isCurrent(Entry entry) {
+        for (int i = 0; i < entry.parts.length; i++) {
+            if (parts.get(entry.parts[i]).version != entry.versions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] parts(ItemQuery query) {
+        Set<String> parts = new LinkedHashSet<>();
+        for (List<ItemQuery.Clause> alternative : query.getAlternatives()) {
+            for (ItemQuery.Clause clause : alternative) {
+                if (!clause.isNegated()) {
+                    for (String part : fold(clause.getText()).split("\\s+")) {
+                        if (!part.isEmpty()) {
+                            parts.add(part);
+                        }
+                    }
+                }
+            }
+        }
+        return parts.toArray(new String[0]);
+    }
+
+    private static long weight(String key, List<ItemDto> items) {
+        long weight = ENTRY_OVERHEAD + 2L * key.length();
+        for (ItemDto item : items) {
+            weight += ITEM_OVERHEAD + 2L * (length(item.getName()) + length(item.getDescription()));
+        }
+        return weight;
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+
+    private static String fold(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private static final class Part {
+        private long version;
+        private int references;
+    }
+
+    private static final class Entry {
+        private final String[] parts;
+        private final long[] versions;
+        private final List<ItemDto> items;
+        private final long weight;
+
+        private Entry(String[] parts, long[] versions, List<ItemDto> items, long weight) {
+            this.parts = parts;
+            this.versions = versions;
+            this.items = items;
+            this.weight = weight;
+        }
+    }
+}
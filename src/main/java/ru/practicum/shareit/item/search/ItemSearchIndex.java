@@ -0,0 +1,364 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.query.ItemQuery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongToDoubleFunction;
+
+public class ItemSearchIndex {
+    private static final char SEPARATOR = '\u0000';
+    private static final int NAME_WEIGHT = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double POPULARITY_WEIGHT = 0.5;
+    private static final int GRAM = 3;
+    private static final Comparator<Hit> WORST_FIRST = Comparator.<Hit>comparingDouble(hit -> hit.score)
+            .thenComparing(Comparator.<Hit>comparingLong(hit -> hit.id).reversed());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private final Map<String, TermList> grams = new HashMap<>();
+    private final Map<Long, Integer> docs = new HashMap<>();
+    private final TermList freeDocs = new TermList();
+    private int[][] postings = new int[16][];
+    private int[] postingSizes = new int[16];
+    private long[] ids = new long[16];
+    private String[] texts = new String[16];
+    private int[] lengths = new int[16];
+    private long totalLength;
+    private int size;
+
+    public void put(long id, String name, String description) {
+        restore(id, document(name, description));
+    }
+
+    public void remove(long id) {
+        restore(id, null);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> search(String text, long offset, int limit) {
+        return search(text, offset, limit, id -> 0);
+    }
+
+    public List<Long> search(String text, long offset, int limit, LongToDoubleFunction popularity) {
+        ItemQuery query = ItemQuery.parse(text);
+        List<Long> result = new ArrayList<>();
+        if (query.isEmpty() || limit < 1) {
+            return result;
+        }
+        long wanted = offset + limit;
+        PriorityQueue<Hit> top = new PriorityQueue<>(WORST_FIRST);
+        lock.readLock().lock();
+        try {
+            Map<String, BitSet> containingParts = new HashMap<>();
+            BitSet hits = new BitSet(texts.length);
+            for (List<ItemQuery.Clause> alternative : query.getAlternatives()) {
+                BitSet candidates = null;
+                for (ItemQuery.Clause clause : alternative) {
+                    if (clause.isNegated()) {
+                        continue;
+                    }
+                    for (String part : tokenize(fold(clause.getText()))) {
+                        BitSet containing = containingParts.computeIfAbsent(part, this::docsContaining);
+                        if (candidates == null) {
+                            candidates = (BitSet) containing.clone();
+                        } else {
+                            candidates.and(containing);
+                        }
+                    }
+                }
+                candidates = candidates == null ? allDocs() : candidates;
+                for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                    if (!hits.get(doc) && matches(texts[doc], alternative)) {
+                        hits.set(doc);
+                    }
+                }
+            }
+            List<String> parts = new ArrayList<>(containingParts.keySet());
+            double[] idf = new double[parts.size()];
+            for (int i = 0; i < parts.size(); i++) {
+                int df = containingParts.get(parts.get(i)).cardinality();
+                idf[i] = Math.log(1 + (size - df + 0.5) / (df + 0.5));
+            }
+            double averageLength = size == 0 ? 1 : Math.max(1.0, (double) totalLength / size);
+            for (int doc = hits.nextSetBit(0); doc >= 0; doc = hits.nextSetBit(doc + 1)) {
+                Hit hit = new Hit(ids[doc], relevance(texts[doc], parts, idf, lengths[doc] / averageLength)
+                        + POPULARITY_WEIGHT * popularity.applyAsDouble(ids[doc]));
+                if (top.size() < wanted) {
+                    top.add(hit);
+                } else if (WORST_FIRST.compare(hit, top.peek()) > 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        while (top.size() > offset) {
+            result.add(top.poll().id);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    String folded(long id) {
+        lock.readLock().lock();
+        try {
+            Integer doc = docs.get(id);
+            return doc == null ? null : texts[doc];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void restore(long id, String folded) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = docs.get(id);
+            if (existing == null && folded == null) {
+                return;
+            }
+            int doc = existing == null ? allocate(id) : existing;
+            String previous = texts[doc];
+            if (previous != null) {
+                for (String term : tokenize(previous)) {
+                    removePosting(termIds.get(term), doc);
+                }
+                totalLength -= lengths[doc];
+                lengths[doc] = 0;
+                size--;
+            }
+            texts[doc] = folded;
+            if (folded == null) {
+                docs.remove(id);
+                freeDocs.push(doc);
+            } else {
+                List<String> tokens = tokenize(folded);
+                for (String term : tokens) {
+                    addPosting(termId(term), doc);
+                }
+                lengths[doc] = tokens.size();
+                totalLength += tokens.size();
+                size++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int allocate(long id) {
+        int doc;
+        if (freeDocs.size > 0) {
+            doc = freeDocs.ids[--freeDocs.size];
+        } else {
+            doc = docs.size();
+            if (doc == texts.length) {
+                int capacity = doc + (doc >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                texts = Arrays.copyOf(texts, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+        }
+        ids[doc] = id;
+        docs.put(id, doc);
+        return doc;
+    }
+
+    static String document(String name, String description) {
+        return fold(name) + SEPARATOR + fold(description);
+    }
+
+    private BitSet docsContaining(String part) {
+        BitSet containing = new BitSet(texts.length);
+        TermList candidates = part.length() <= GRAM ? grams.get(part) : rarestGram(part);
+        if (candidates == null) {
+            return containing;
+        }
+        for (int i = 0; i < candidates.size; i++) {
+            int term = candidates.ids[i];
+            if (part.length() <= GRAM || terms.get(term).contains(part)) {
+                int[] posting = postings[term];
+                for (int j = 0; j < postingSizes[term]; j++) {
+                    containing.set(posting[j]);
+                }
+            }
+        }
+        return containing;
+    }
+
+    private TermList rarestGram(String part) {
+        TermList rarest = null;
+        for (int i = 0; i + GRAM <= part.length(); i++) {
+            TermList candidates = grams.get(part.substring(i, i + GRAM));
+            if (candidates == null) {
+                return null;
+            }
+            if (rarest == null || candidates.size < rarest.size) {
+                rarest = candidates;
+            }
+        }
+        return rarest;
+    }
+
+    private BitSet allDocs() {
+        BitSet all = new BitSet(texts.length);
+        for (int doc = 0; doc < texts.length; doc++) {
+            if (texts[doc] != null) {
+                all.set(doc);
+            }
+        }
+        return all;
+    }
+
+    private static boolean matches(String folded, List<ItemQuery.Clause> clauses) {
+        for (ItemQuery.Clause clause : clauses) {
+            String part = fold(clause.getText()).replace(String.valueOf(SEPARATOR), "");
+            if (folded.contains(part) == clause.isNegated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double relevance(String folded, List<String> parts, double[] idf, double relativeLength) {
+        int separator = folded.indexOf(SEPARATOR);
+        double score = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            int tf = NAME_WEIGHT * occurrences(folded, parts.get(i), 0, separator)
+                    + occurrences(folded, parts.get(i), separator + 1, folded.length());
+            score += idf[i] * tf * (K1 + 1) / (tf + K1 * (1 - B + B * relativeLength));
+        }
+        return score;
+    }
+
+    private static int occurrences(String folded, String part, int from, int to) {
+        int count = 0;
+        for (int i = folded.indexOf(part, from); i >= 0 && i + part.length() <= to;
+             i = folded.indexOf(part, i + part.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private int termId(String term) {
+        Integer id = termIds.get(term);
+        if (id != null) {
+            return id;
+        }
+        id = terms.size();
+        terms.add(term);
+        termIds.put(term, id);
+        if (id == postings.length) {
+            postings = Arrays.copyOf(postings, id + (id >> 1));
+            postingSizes = Arrays.copyOf(postingSizes, postings.length);
+        }
+        postings[id] = new int[4];
+        for (int length = 1; length <= GRAM; length++) {
+            for (int i = 0; i + length <= term.length(); i++) {
+                grams.computeIfAbsent(term.substring(i, i + length), gram -> new TermList()).add(id);
+            }
+        }
+        return id;
+    }
+
+    private void addPosting(int term, int doc) {
+        int[] ids = postings[term];
+        int count = postingSizes[term];
+        int position = count == 0 || ids[count - 1] < doc ? count : Arrays.binarySearch(ids, 0, count, doc);
+        if (position < 0) {
+            position = -position - 1;
+        } else if (position < count) {
+            return;
+        }
+        if (count == ids.length) {
+            ids = Arrays.copyOf(ids, count + (count >> 1) + 1);
+            postings[term] = ids;
+        }
+        System.arraycopy(ids, position, ids, position + 1, count - position);
+        ids[position] = doc;
+        postingSizes[term] = count + 1;
+    }
+
+    private void removePosting(int term, int doc) {
+        int[] ids = postings[term];
+        int count = postingSizes[term];
+        int position = Arrays.binarySearch(ids, 0, count, doc);
+        if (position >= 0) {
+            System.arraycopy(ids, position + 1, ids, position, count - position - 1);
+            postingSizes[term] = count - 1;
+        }
+    }
+
+    private static final class TermList {
+        private int[] ids = new int[2];
+        private int size;
+
+        private void push(int value) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+            }
+            ids[size++] = value;
+        }
+
+        private void add(int term) {
+            if (size > 0 && ids[size - 1] == term) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+            }
+            ids[size++] = term;
+        }
+    }
+
+    private static final class Hit {
+        private final long id;
+        private final double score;
+
+        private Hit(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+    private static List<String> tokenize(String folded) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean boundary = i == folded.length() || folded.charAt(i) == SEPARATOR
+                    || Character.isWhitespace(folded.charAt(i));
+            if (boundary && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            } else if (!boundary && start < 0) {
+                start = i;
+            }
+        }
+        return tokens;
+    }
+
+    private static String fold(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class ItemSuggestIndex {
+    private static final int SHORT_PREFIX = 2;
+    private static final Comparator<Map.Entry<String, Integer>> RANK = (left, right) -> {
+        int byCount = Integer.compare(right.getValue(), left.getValue());
+        return byCount != 0 ? byCount : left.getKey().compareTo(right.getKey());
+    };
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Integer> counts = new TreeMap<>();
+    private final Map<Long, String[]> itemTerms = new HashMap<>();
+    private final Map<String, NavigableSet<Map.Entry<String, Integer>>> ranked = new HashMap<>();
+
+    public void put(long id, String name) {
+        restore(id, tokenize(name));
+    }
+
+    public void remove(long id) {
+        restore(id, null);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return counts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String folded = fold(prefix).strip();
+        List<String> result = new ArrayList<>();
+        if (folded.isEmpty() || limit < 1) {
+            return result;
+        }
+        if (folded.length() <= SHORT_PREFIX) {
+            lock.readLock().lock();
+            try {
+                for (Map.Entry<String, Integer> term : ranked.getOrDefault(folded, Collections.emptyNavigableSet())) {
+                    if (result.size() == limit) {
+                        break;
+                    }
+                    result.add(term.getKey());
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return result;
+        }
+        PriorityQueue<Map.Entry<String, Integer>> top = new PriorityQueue<>(limit + 1, RANK.reversed());
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, Integer> term
+                    : counts.subMap(folded, true, folded + Character.MAX_VALUE, false).entrySet()) {
+                if (top.size() < limit) {
+                    top.add(Map.entry(term.getKey(), term.getValue()));
+                } else if (RANK.compare(term, top.peek()) < 0) {
+                    top.poll();
+                    top.add(Map.entry(term.getKey(), term.getValue()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        while (!top.isEmpty()) {
+            result.add(top.poll().getKey());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    String[] terms(long id) {
+        lock.readLock().lock();
+        try {
+            return itemTerms.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void restore(long id, String[] terms) {
+        lock.writeLock().lock();
+        try {
+            String[] previous = terms == null || terms.length == 0
+                    ? itemTerms.remove(id) : itemTerms.put(id, terms);
+            if (previous != null) {
+                for (String term : previous) {
+                    change(term, -1);
+                }
+            }
+            if (terms != null) {
+                for (String term : terms) {
+                    change(term, 1);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void change(String term, int delta) {
+        Integer before = counts.get(term);
+        int after = (before == null ? 0 : before) + delta;
+        if (after < 0) {
+            return;
+        }
+        if (after == 0) {
+            counts.remove(term);
+        } else {
+            counts.put(term, after);
+        }
+        for (int length = 1; length <= Math.min(SHORT_PREFIX, term.length()); length++) {
+            String prefix = term.substring(0, length);
+            NavigableSet<Map.Entry<String, Integer>> terms = ranked.computeIfAbsent(prefix,
+                    key -> new TreeSet<>(RANK));
+            if (before != null) {
+                terms.remove(Map.entry(term, before));
+            }
+            if (after > 0) {
+                terms.add(Map.entry(term, after));
+            } else if (terms.isEmpty()) {
+                ranked.remove(prefix);
+            }
+        }
+    }
+
+    static String[] tokenize(String name) {
+        String folded = fold(name);
+        Set<String> tokens = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean boundary = i == folded.length() || !Character.isLetterOrDigit(folded.charAt(i));
+            if (boundary && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            } else if (!boundary && start < 0) {
+                start = i;
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private static String fold(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
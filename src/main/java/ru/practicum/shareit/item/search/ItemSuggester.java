@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemSuggester {
+    private final JdbcTemplate jdbcTemplate;
+    private final Object updates = new Object();
+    private volatile ItemSuggestIndex index = new ItemSuggestIndex();
+    private Map<Long, String[]> pending;
+
+    public List<String> suggest(String prefix, int limit) {
+        return index.suggest(prefix, limit);
+    }
+
+    public void index(Item item) {
+        String[] tokens = Boolean.TRUE.equals(item.getAvailable()) ? ItemSuggestIndex.tokenize(item.getName()) : null;
+        String[] terms = tokens == null || tokens.length == 0 ? null : tokens;
+        String[] previous = apply(item.getId(), terms);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        revert(item.getId(), terms, previous);
+                    }
+                }
+            });
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long begin = System.currentTimeMillis();
+        ItemSuggestIndex rebuilt = new ItemSuggestIndex();
+        synchronized (updates) {
+            pending = new HashMap<>();
+        }
+        jdbcTemplate.query("select id, name from items where is_available = true",
+                rs -> {
+                    rebuilt.put(rs.getLong("id"), rs.getString("name"));
+                });
+        synchronized (updates) {
+            pending.forEach(rebuilt::restore);
+            pending = null;
+            index = rebuilt;
+        }
+        log.info("Словарь подсказок построен: {} слов за {} мс", rebuilt.size(),
+                System.currentTimeMillis() - begin);
+    }
+
+    private String[] apply(long id, String[] terms) {
+        synchronized (updates) {
+            String[] previous = index.terms(id);
+            index.restore(id, terms);
+            if (pending != null) {
+                pending.put(id, terms);
+            }
+            return previous;
+        }
+    }
+
+    private void revert(long id, String[] applied, String[] previous) {
+        synchronized (updates) {
+            if (Arrays.equals(index.terms(id), applied)) {
+                apply(id, previous);
+            }
+        }
+    }
+}
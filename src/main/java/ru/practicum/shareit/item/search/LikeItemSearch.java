@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.query.ItemQuery;
+
+import java.util.List;
+
+@Service
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "like")
+@RequiredArgsConstructor
+public class LikeItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Integer from, Integer size) {
+        return itemRepository.searchAvailable(ItemQuery.parse(text), PageRequest.of(from, size));
+    }
+}
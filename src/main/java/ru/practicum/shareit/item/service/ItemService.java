@@ -18,7 +18,11 @@ public interface ItemService {
 
     List<ItemDtoBooking> getItemsListForUser(Long userId, Integer from, Integer size);
 
+    List<ItemDtoBooking> getItemsListForUserAfter(Long userId, Long after, Integer size);
+
     List<ItemDto> searchItemsForText(String text, Integer from, Integer size);
 
+    List<String> suggestItemNames(String prefix, Integer size);
+
     CommentDto addComment(Comment comment, Long itemId, Long userId);
 }
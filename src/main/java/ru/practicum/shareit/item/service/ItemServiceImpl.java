@@ -3,9 +3,12 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.BookingShort;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
@@ -20,15 +23,21 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoBooking;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemPopularity;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSuggester;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.matching.RequestMatcher;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.CallerContext;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -37,22 +46,33 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
-    private final UserRepository userRepository;
+    private final CallerContext callerContext;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearch itemSearch;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSuggester itemSuggester;
+    private final ItemPopularity itemPopularity;
+    private final RequestMatcher requestMatcher;
 
     @Transactional
     @Override
     public ItemDto createItem(ItemDto itemDto, Long userId) {
-        checkItemForCreate(itemDto, userId);
+        User owner = checkItemForCreate(itemDto, userId);
         Item item = ItemMapper.toItem(itemDto);
         if (itemDto.getRequestId() == null) {
             item.setRequest(null);
         } else item.setRequest(itemRequestRepository.findById(itemDto.getRequestId()).get());
-        item.setOwner(userRepository.findById(userId).get());
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        item.setOwner(owner);
+        Item saved = itemRepository.save(item);
+        itemSearch.index(saved);
+        itemSuggester.index(saved);
+        requestMatcher.itemChanged(saved);
+        ItemDto result = ItemMapper.toItemDto(saved);
+        itemSearchCache.invalidate(null, result);
+        return result;
     }
 
     @Override
@@ -67,6 +87,7 @@ public class ItemServiceImpl implements ItemService {
         checkItemForPatch(item, itemId, userId);
         Item oldItem = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Такого пользователя не существует"));
+        ItemDto before = ItemMapper.toItemDto(oldItem);
         if (item.getName() != null) {
             oldItem.setName(item.getName());
         }
@@ -76,7 +97,13 @@ public class ItemServiceImpl implements ItemService {
         if (item.getAvailable() != null) {
             oldItem.setAvailable(item.getAvailable());
         }
-        return ItemMapper.toItemDto(itemRepository.save(oldItem));
+        Item saved = itemRepository.save(oldItem);
+        itemSearch.index(saved);
+        itemSuggester.index(saved);
+        requestMatcher.itemChanged(saved);
+        ItemDto result = ItemMapper.toItemDto(saved);
+        itemSearchCache.invalidate(before, result);
+        return result;
     }
 
     @Override
@@ -85,24 +112,15 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new NotFoundException("такого айтема не существует"));
         ItemDtoBooking result = ItemMapper.toItemDtoBooking(item);
         if (Objects.equals(item.getOwner().getId(), userId)) {
-            List<Booking> test = bookingRepository.findByItemOrderByStartAsc(item);
-            Optional<Booking> tempNext = bookingRepository.findByItemOrderByStartAsc(item).stream()
-                    .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                    .filter(booking -> !booking.getStatus().equals(StatusBooking.REJECTED)).findFirst();
-            if (tempNext.isPresent()) {
-                BookingDtoForItem bookingDtoForItem
-                        = new BookingDtoForItem(tempNext.get().getId(), tempNext.get().getBooker().getId());
-                result.setNextBooking(bookingDtoForItem);
-            } else result.setNextBooking(null);
-            Optional<Booking> tempEnd = bookingRepository.findByItemOrderByEndDesc(item).stream()
-                    .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now())
-                            || booking.getStart().isBefore(LocalDateTime.now()))
-                    .filter(booking -> !booking.getStatus().equals(StatusBooking.REJECTED)).findFirst();
-            if (tempEnd.isPresent()) {
-                BookingDtoForItem bookingDtoForItem
-                        = new BookingDtoForItem(tempEnd.get().getId(), tempEnd.get().getBooker().getId());
-                result.setLastBooking(bookingDtoForItem);
-            } else result.setLastBooking(null);
+            LocalDateTime now = LocalDateTime.now();
+            result.setNextBooking(bookingRepository
+                    .findFirstByItemAndStartAfterAndStatusNotOrderByStartAsc(item, now, StatusBooking.REJECTED)
+                    .map(booking -> new BookingDtoForItem(booking.getId(), booking.getBooker().getId()))
+                    .orElse(null));
+            result.setLastBooking(bookingRepository
+                    .findFirstByItemAndStartBeforeAndStatusNotOrderByEndDesc(item, now, StatusBooking.REJECTED)
+                    .map(booking -> new BookingDtoForItem(booking.getId(), booking.getBooker().getId()))
+                    .orElse(null));
         }
         result.setComments(commentRepository.findByItem(item)
                 .stream().map(CommentMapper::toCommentDto).collect(Collectors.toList()));
@@ -114,10 +132,18 @@ public class ItemServiceImpl implements ItemService {
         if (size < 1 || from < 0) {
             throw new ValidationException("");
         }
-        User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("такого пользователя нет"));
-        return itemRepository.findByOwner(user, PageRequest.of(from, size)).stream()
-                .map(item -> getItem(item.getId(), userId))
-                .collect(Collectors.toList());
+        User user = callerContext.find(userId).orElseThrow(() -> new NotFoundException("такого пользователя нет"));
+        return toItemDtoBookingList(itemRepository.findByOwner(user, PageRequest.of(from, size)).getContent(), userId);
+    }
+
+    @Override
+    public List<ItemDtoBooking> getItemsListForUserAfter(Long userId, Long after, Integer size) {
+        if (size < 1 || after < 0) {
+            throw new ValidationException("");
+        }
+        User user = callerContext.find(userId).orElseThrow(() -> new NotFoundException("такого пользователя нет"));
+        return toItemDtoBookingList(itemRepository.findByOwnerAndIdGreaterThan(user, after,
+                PageRequest.of(0, size, Sort.by(Sort.Direction.ASC, "id"))), userId);
     }
 
     @Override
@@ -129,10 +155,18 @@ public class ItemServiceImpl implements ItemService {
             return new ArrayList<>();
         }
 
-        return itemRepository.search(text, PageRequest.of(from, size)).stream()
+        return itemSearchCache.get(text, from, size, () -> itemSearch.search(text, from, size).stream()
                 .map(ItemMapper::toItemDto)
-                .filter(ItemDto::getAvailable)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<String> suggestItemNames(String prefix, Integer size) {
+        if (size < 1) {
+            throw new ValidationException("");
+        }
+        return itemSuggester.suggest(prefix, size);
     }
 
     @Transactional
@@ -142,7 +176,7 @@ public class ItemServiceImpl implements ItemService {
             throw new ValidationException("");
         }
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException(""));
-        User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException(""));
+        User user = callerContext.find(userId).orElseThrow(() -> new NotFoundException(""));
         List<Booking> testList = bookingRepository.findByItemAndBooker(item, user).stream()
                 .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now()))
                 .collect(Collectors.toList());
@@ -150,11 +184,48 @@ public class ItemServiceImpl implements ItemService {
             comment.setItem(item);
             comment.setAuthor(user);
             comment.setCreated(LocalDateTime.now());
-            return CommentMapper.toCommentDto(commentRepository.save(comment));
+            Comment saved = commentRepository.save(comment);
+            itemPopularity.recordComment(item);
+            return CommentMapper.toCommentDto(saved);
         } else throw new ValidationException("");
     }
 
-    private void checkItemForCreate(ItemDto itemDto, Long userId) {
+    private List<ItemDtoBooking> toItemDtoBookingList(List<Item> items, Long userId) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingShort> nextBookings = bookingRepository.findNextForItems(itemIds, now).stream()
+                .collect(Collectors.toMap(BookingShort::getItemId, Function.identity()));
+        Map<Long, BookingShort> lastBookings = bookingRepository.findLastForItems(itemIds, now).stream()
+                .collect(Collectors.toMap(BookingShort::getItemId, Function.identity()));
+        Map<Long, List<CommentDto>> comments = commentRepository.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+        List<ItemDtoBooking> result = new ArrayList<>();
+        for (Item item : items) {
+            ItemDtoBooking itemDto = ItemMapper.toItemDtoBooking(item);
+            if (Objects.equals(item.getOwner().getId(), userId)) {
+                itemDto.setNextBooking(toBookingDtoForItem(nextBookings.get(item.getId())));
+                itemDto.setLastBooking(toBookingDtoForItem(lastBookings.get(item.getId())));
+            }
+            itemDto.setComments(comments.getOrDefault(item.getId(), new ArrayList<>()));
+            result.add(itemDto);
+        }
+        return result;
+    }
+
+    private BookingDtoForItem toBookingDtoForItem(BookingShort booking) {
+        if (booking == null) {
+            return null;
+        }
+        return new BookingDtoForItem(booking.getId(), booking.getBookerId());
+    }
+
+    private User checkItemForCreate(ItemDto itemDto, Long userId) {
         if (userId == null) {
             throw new ValidationException("нет id владельца вещи");
         }
@@ -167,7 +238,7 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() == null) {
             throw new ValidationException("статус вещи не может быть пустым или отсутствовать");
         }
-        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("такого пользователя не существует"));
+        return callerContext.find(userId).orElseThrow(() -> new NotFoundException("такого пользователя не существует"));
     }
 
     private void checkItemForPatch(ItemDto item, Long idItem, Long userId) {
@@ -184,7 +255,7 @@ public class ItemServiceImpl implements ItemService {
                 throw new ValidationException("описание вещи не может быть пустым или отсутствовать");
             }
         }
-        userRepository.findById(userId)
+        callerContext.find(userId)
                 .orElseThrow(() -> new NotFoundException("такого пользователя не существует"));
         if (!Objects.equals(itemRepository.findById(idItem)
                 .orElseThrow(() -> new NotFoundException("")).getOwner().getId(), userId)) {
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+    private final LocalDateTime position;
+    private final Long id;
+
+    public static PageCursor parse(String after) {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        String[] parts = after.split(",");
+        if (parts.length != 2) {
+            throw new ValidationException("неверный курсор: " + after);
+        }
+        try {
+            return new PageCursor(LocalDateTime.parse(parts[0].trim()), Long.parseLong(parts[1].trim()));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new ValidationException("неверный курсор: " + after);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return position + "," + id;
+    }
+}
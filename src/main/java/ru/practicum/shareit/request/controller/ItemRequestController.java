@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -36,10 +37,19 @@ public class ItemRequestController {
         return itemRequestService.findRequestById(requestId, userId);
     }
 
+    @GetMapping("/{id}/matches")
+    List<ItemDto> findMatches(@PathVariable("id") Long requestId, @RequestHeader(sharerUserId) Long userId) {
+        return itemRequestService.findMatches(requestId, userId);
+    }
+
     @GetMapping("/all")
     List<ItemRequestDto> findAllRequest(@RequestParam(defaultValue = "0") Integer from,
                                         @RequestParam(defaultValue = "20") Integer size,
+                                        @RequestParam(required = false) String after,
                                         @RequestHeader(sharerUserId) Long userId) {
+        if (after != null) {
+            return itemRequestService.findAllRequestAfter(after, size, userId);
+        }
         return itemRequestService.findAllRequest(from, size, userId);
     }
 }
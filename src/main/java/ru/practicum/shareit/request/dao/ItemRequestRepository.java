@@ -3,13 +3,23 @@ package ru.practicum.shareit.request.dao;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findByRequestorOrderByCreatedDesc(User user);
 
     Page<ItemRequest> findAll(Pageable pageable);
+
+    List<ItemRequest> findByRequestorIdNot(Long userId, Pageable pageable);
+
+    @Query("select r from ItemRequest r " +
+            "where r.requestor.id <> ?1 " +
+            " and (r.created < ?2 or (r.created = ?2 and r.id < ?3)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findByRequestorIdNotAfter(Long userId, LocalDateTime created, Long id, Pageable pageable);
 }
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public class RequestMatchIndex {
+    private static final int MIN_TERM_LENGTH = 3;
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, OpenRequest> requests = new HashMap<>();
+
+    public void put(long requestId, long requestorId, String description) {
+        remove(requestId);
+        String[] terms = tokenize(description);
+        if (terms.length == 0) {
+            return;
+        }
+        requests.put(requestId, new OpenRequest(requestorId, terms));
+        for (String term : terms) {
+            postings.computeIfAbsent(term, key -> new HashSet<>()).add(requestId);
+        }
+    }
+
+    public void remove(long requestId) {
+        OpenRequest previous = requests.remove(requestId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms) {
+            Set<Long> ids = postings.get(term);
+            ids.remove(requestId);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        requests.clear();
+    }
+
+    public int size() {
+        return requests.size();
+    }
+
+    public List<Match> match(Long ownerId, String name, String description, double minScore, int limit) {
+        Map<Long, Double> matched = new HashMap<>();
+        for (String term : tokenize(name + " " + description)) {
+            Set<Long> ids = postings.get(term);
+            if (ids == null) {
+                continue;
+            }
+            double idf = idf(ids.size());
+            for (Long requestId : ids) {
+                matched.merge(requestId, idf, Double::sum);
+            }
+        }
+        List<Match> result = new ArrayList<>();
+        for (Map.Entry<Long, Double> entry : matched.entrySet()) {
+            OpenRequest request = requests.get(entry.getKey());
+            if (Objects.equals(request.requestorId, ownerId)) {
+                continue;
+            }
+            double total = 0;
+            for (String term : request.terms) {
+                total += idf(postings.get(term).size());
+            }
+            double score = entry.getValue() / total;
+            if (score >= minScore) {
+                result.add(new Match(entry.getKey(), score));
+            }
+        }
+        result.sort(Comparator.comparingDouble(Match::getScore).reversed().thenComparing(Match::getRequestId));
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    private double idf(int df) {
+        return Math.log(1 + (double) requests.size() / df);
+    }
+
+    private static String[] tokenize(String text) {
+        String folded = text == null ? "" : text.toLowerCase(Locale.ROOT);
+        Set<String> tokens = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean boundary = i == folded.length() || !Character.isLetterOrDigit(folded.charAt(i));
+            if (boundary && start >= 0) {
+                if (i - start >= MIN_TERM_LENGTH) {
+                    tokens.add(folded.substring(start, i));
+                }
+                start = -1;
+            } else if (!boundary && start < 0) {
+                start = i;
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Match {
+        private final long requestId;
+        private final double score;
+    }
+
+    @RequiredArgsConstructor
+    private static class OpenRequest {
+        private final long requestorId;
+        private final String[] terms;
+    }
+}
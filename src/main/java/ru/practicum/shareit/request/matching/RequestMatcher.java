@@ -0,0 +1,127 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class RequestMatcher {
+    private final JdbcTemplate jdbcTemplate;
+    private final double minScore;
+    private final int limit;
+    private final RequestMatchIndex index = new RequestMatchIndex();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "request-matcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RequestMatcher(JdbcTemplate jdbcTemplate,
+                          @Value("${shareit.matching.min-score:0.5}") double minScore,
+                          @Value("${shareit.matching.limit:10}") int limit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.minScore = minScore;
+        this.limit = limit;
+    }
+
+    public void requestCreated(ItemRequest request) {
+        long requestId = request.getId();
+        long requestorId = request.getRequestor().getId();
+        String description = request.getDescription();
+        afterCommit(() -> index.put(requestId, requestorId, description));
+    }
+
+    public void itemChanged(Item item) {
+        long itemId = item.getId();
+        Long ownerId = item.getOwner().getId();
+        Long requestId = item.getRequest() == null ? null : item.getRequest().getId();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        String name = item.getName();
+        String description = item.getDescription();
+        afterCommit(() -> {
+            if (requestId != null) {
+                index.remove(requestId);
+                jdbcTemplate.update("delete from request_matches where request_id = ?", requestId);
+            }
+            List<RequestMatchIndex.Match> matches = available && requestId == null
+                    ? index.match(ownerId, name, description, minScore, limit) : List.of();
+            jdbcTemplate.update("delete from request_matches where item_id = ?", itemId);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate("insert into request_matches (request_id, item_id, score, created) "
+                            + "values (?, ?, ?, ?)",
+                    matches.stream()
+                            .map(match -> new Object[]{match.getRequestId(), itemId, match.getScore(), now})
+                            .collect(Collectors.toList()));
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        submit(() -> {
+            long begin = System.currentTimeMillis();
+            index.clear();
+            jdbcTemplate.query("select r.id, r.requestor_id, r.description from requests r "
+                            + "where not exists (select 1 from items i where i.request_id = r.id)",
+                    rs -> {
+                        index.put(rs.getLong("id"), rs.getLong("requestor_id"), rs.getString("description"));
+                    });
+            log.info("Индекс открытых запросов построен: {} запросов за {} мс", index.size(),
+                    System.currentTimeMillis() - begin);
+        });
+    }
+
+    public void awaitPending() {
+        try {
+            executor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void afterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(task);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(task);
+            }
+        });
+    }
+
+    private void submit(Runnable task) {
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.warn("Ошибка при подборе вещей для запросов", e);
+            }
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
@@ -14,4 +15,8 @@ public interface ItemRequestService {
     ItemRequestDto findRequestById(Long requestId, Long userId);
 
     List<ItemRequestDto> findAllRequest(Integer from, Integer size, Long userId);
+
+    List<ItemRequestDto> findAllRequestAfter(String after, Integer size, Long userId);
+
+    List<ItemDto> findMatches(Long requestId, Long userId);
 }
@@ -9,16 +9,21 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.matching.RequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
-import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.CallerContext;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -28,8 +33,9 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
-    private final UserRepository userRepository;
+    private final CallerContext callerContext;
     private final ItemRepository itemRepository;
+    private final RequestMatcher requestMatcher;
 
     @Transactional
     @Override
@@ -37,39 +43,28 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         if (itemRequest.getDescription() == null || itemRequest.getDescription().equals("")) {
             throw new ValidationException("ошибка в описании");
         }
-        itemRequest.setRequestor(userRepository.findById(userId)
+        itemRequest.setRequestor(callerContext.find(userId)
                 .orElseThrow(() -> new NotFoundException("пользователь не найден")));
-        itemRequest.setCreated(LocalDateTime.now());
-        return ItemRequestMapper.toItemRequestDto(itemRequestRepository.save(itemRequest));
+        itemRequest.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        ItemRequest saved = itemRequestRepository.save(itemRequest);
+        requestMatcher.requestCreated(saved);
+        return ItemRequestMapper.toItemRequestDto(saved);
     }
 
     @Override
     public List<ItemRequestDto> getRequestForUser(Long userId) {
         List<ItemRequest> requests = itemRequestRepository
-                .findByRequestorOrderByCreatedDesc(userRepository
-                        .findById(userId).orElseThrow(() -> new NotFoundException("пользователь не найден")));
-        List<ItemRequestDto> result = new ArrayList<>();
-        for (ItemRequest itemRequest : requests) {
-            ItemRequestDto temp = ItemRequestMapper.toItemRequestDto(itemRequest);
-            temp.setItems(itemRepository.findByRequest(itemRequest).stream()
-                    .map(ItemMapper::toItemDto)
-                    .collect(Collectors.toList()));
-            result.add(temp);
-        }
-        return result;
+                .findByRequestorOrderByCreatedDesc(callerContext
+                        .find(userId).orElseThrow(() -> new NotFoundException("пользователь не найден")));
+        return toItemRequestDtosWithItems(requests);
     }
 
     @Override
     public ItemRequestDto findRequestById(Long requestId, Long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new NotFoundException(""));
+        callerContext.find(userId).orElseThrow(() -> new NotFoundException(""));
         ItemRequest request = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException(""));
-        ItemRequestDto result = ItemRequestMapper
-                .toItemRequestDto(request);
-        result.setItems(itemRepository.findByRequest(request).stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList()));
-        return result;
+        return toItemRequestDtoWithItems(request);
     }
 
     @Override
@@ -77,12 +72,59 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         if (size < 1 || from < 0) {
             throw new ValidationException("");
         }
-        return itemRequestRepository
-                .findAll(PageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "created"))).stream()
-                .map(itemRequest -> findRequestById(itemRequest.getId(), userId))
-                .filter(itemRequestDto -> !Objects.equals(itemRequestDto.getId(), userId))
+        callerContext.find(userId).orElseThrow(() -> new NotFoundException(""));
+        return toItemRequestDtosWithItems(itemRequestRepository.findByRequestorIdNot(userId, PageRequest.of(from, size,
+                Sort.by(Sort.Direction.DESC, "created").and(Sort.by(Sort.Direction.DESC, "id")))));
+    }
+
+    @Override
+    public List<ItemRequestDto> findAllRequestAfter(String after, Integer size, Long userId) {
+        if (size < 1) {
+            throw new ValidationException("");
+        }
+        PageCursor cursor = PageCursor.parse(after);
+        callerContext.find(userId).orElseThrow(() -> new NotFoundException(""));
+        List<ItemRequest> requests;
+        if (cursor == null) {
+            requests = itemRequestRepository.findByRequestorIdNot(userId, PageRequest.of(0, size,
+                    Sort.by(Sort.Direction.DESC, "created").and(Sort.by(Sort.Direction.DESC, "id"))));
+        } else {
+            requests = itemRequestRepository.findByRequestorIdNotAfter(userId, cursor.getPosition(),
+                    cursor.getId(), PageRequest.of(0, size));
+        }
+        return toItemRequestDtosWithItems(requests);
+    }
+
+    @Override
+    public List<ItemDto> findMatches(Long requestId, Long userId) {
+        callerContext.find(userId).orElseThrow(() -> new NotFoundException(""));
+        ItemRequest request = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException(""));
+        if (!Objects.equals(request.getRequestor().getId(), userId)) {
+            throw new NotFoundException("");
+        }
+        return itemRepository.findMatchedForRequest(requestId).stream()
+                .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
+    private ItemRequestDto toItemRequestDtoWithItems(ItemRequest request) {
+        return toItemRequestDtosWithItems(List.of(request)).get(0);
+    }
 
+    private List<ItemRequestDto> toItemRequestDtosWithItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, List<ItemDto>> items = itemRepository.findByRequestIn(requests).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(ItemMapper::toItemDto, Collectors.toList())));
+        return requests.stream()
+                .map(request -> {
+                    ItemRequestDto result = ItemRequestMapper.toItemRequestDto(request);
+                    result.setItems(items.getOrDefault(request.getId(), new ArrayList<>()));
+                    return result;
+                })
+                .collect(Collectors.toList());
+    }
 }
@@ -1,26 +1,52 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserImportResult;
+import ru.practicum.shareit.user.service.UserImporter;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Consumer;
 
 
 @RestController
 @RequestMapping(path = "/users")
 public class UserController {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int STREAM_CHUNK_SIZE = 500;
+
     private final UserService userService;
+    private final UserImporter userImporter;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImporter userImporter, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.userImporter = userImporter;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public List<User> findAllUsers() {
-        return userService.findAllUsers();
+    public void findAllUsers(@RequestParam(required = false) Long after,
+                             @RequestParam(required = false) Integer size,
+                             HttpServletResponse response) throws IOException {
+        if (after == null && size == null) {
+            writeUsers(response, this::forEachUser);
+            return;
+        }
+        List<User> users = userService.findUsersAfter(after == null ? 0 : after,
+                size == null ? DEFAULT_PAGE_SIZE : size);
+        writeUsers(response, users::forEach);
     }
 
     @PostMapping
@@ -28,6 +54,12 @@ public class UserController {
         return userService.createUser(user);
     }
 
+    @PostMapping(path = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public UserImportResult importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                        InputStream body) {
+        return userImporter.importUsers(body, MediaType.parseMediaType(contentType));
+    }
+
     @PatchMapping("/{id}")
     public User patchUser(@RequestBody User user, @PathVariable("id") Long id) {
         return userService.patchUser(user, id);
@@ -42,4 +74,32 @@ public class UserController {
     public void deleteUser(@PathVariable("id") Long id) {
         userService.deleteUser(id);
     }
+
+    private void forEachUser(Consumer<User> action) {
+        long last = 0;
+        List<User> chunk;
+        do {
+            chunk = userService.findUsersAfter(last, STREAM_CHUNK_SIZE);
+            chunk.forEach(action);
+            if (!chunk.isEmpty()) {
+                last = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == STREAM_CHUNK_SIZE);
+    }
+
+    private void writeUsers(HttpServletResponse response, Consumer<Consumer<User>> users) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            users.accept(user -> {
+                try {
+                    generator.writeObject(user);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.user.dao;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Slf4j
+@Component
+public class EmailFilter {
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long expectedEmails;
+    private final double falsePositiveRate;
+    private volatile Bits bits;
+    private volatile Bits loading;
+
+    public EmailFilter(JdbcTemplate jdbcTemplate,
+                       @Value("${shareit.user.email-filter.enabled:true}") boolean enabled,
+                       @Value("${shareit.user.email-filter.expected-emails:1000000}") long expectedEmails,
+                       @Value("${shareit.user.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.expectedEmails = expectedEmails;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public boolean mightContain(String email) {
+        Bits current = bits;
+        return current == null || current.mightContain(email);
+    }
+
+    public void add(String email) {
+        Bits next = loading;
+        Bits current = bits;
+        if (next != null) {
+            next.add(email);
+        }
+        if (current != null) {
+            current.add(email);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long begin = System.currentTimeMillis();
+        Long count = jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+        Bits next = new Bits(Math.max(expectedEmails, 2 * count), falsePositiveRate);
+        loading = next;
+        jdbcTemplate.query("select email from users", rs -> {
+            next.add(rs.getString("email"));
+        });
+        bits = next;
+        loading = null;
+        log.info("Фильтр почт пользователей построен: {} адресов, {} КБ за {} мс", count,
+                next.words.length() / 128, System.currentTimeMillis() - begin);
+    }
+
+    private static final class Bits {
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashes;
+
+        private Bits(long expected, double falsePositiveRate) {
+            double optimal = -expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+            int length = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (long) Math.ceil(optimal / Long.SIZE)));
+            words = new AtomicLongArray(length);
+            size = (long) length * Long.SIZE;
+            hashes = Math.max(1, (int) Math.round(size / (double) Math.max(1, expected) * Math.log(2)));
+        }
+
+        private void add(String email) {
+            long hash = hash(email);
+            for (int i = 0; i < hashes; i++) {
+                long bit = index(hash, i);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long value = words.get(word);
+                while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask)) {
+                    value = words.get(word);
+                }
+            }
+        }
+
+        private boolean mightContain(String email) {
+            long hash = hash(email);
+            for (int i = 0; i < hashes; i++) {
+                long bit = index(hash, i);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(long hash, int i) {
+            int first = (int) hash;
+            int second = (int) (hash >>> 32);
+            return Math.floorMod(first + (long) i * second, size);
+        }
+
+        private static long hash(String email) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < email.length(); i++) {
+                hash ^= email.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
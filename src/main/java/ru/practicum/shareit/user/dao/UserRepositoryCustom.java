@@ -0,0 +1,9 @@
+package ru.practicum.shareit.user.dao;
+
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+    List<User> findOrderedByIdAfter(long after, int limit);
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.user.dao;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.user.User;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserRepositoryCustomImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public List<User> findOrderedByIdAfter(long after, int limit) {
+        return jdbcTemplate.query("select id, name, email from users where id > ? order by id limit ?",
+                (rs, rowNum) -> new User(rs.getLong("id"), rs.getString("name"), rs.getString("email")),
+                after, limit);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserCache;
+
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class CallerContext {
+    private static final String ATTRIBUTE = CallerContext.class.getName() + ".user.";
+
+    private final UserCache userCache;
+
+    @SuppressWarnings("unchecked")
+    public Optional<User> find(Long userId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null || userId == null) {
+            return userCache.find(userId);
+        }
+        String name = ATTRIBUTE + userId;
+        Optional<User> caller = (Optional<User>) attributes.getAttribute(name, RequestAttributes.SCOPE_REQUEST);
+        if (caller == null) {
+            caller = userCache.find(userId);
+            attributes.setAttribute(name, caller, RequestAttributes.SCOPE_REQUEST);
+        }
+        return caller;
+    }
+
+    public void forget(Long userId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.removeAttribute(ATTRIBUTE + userId, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
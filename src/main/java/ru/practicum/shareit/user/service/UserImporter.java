@@ -0,0 +1,251 @@
+package ru.practicum.shareit.user.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.EmailFilter;
+import ru.practicum.shareit.user.dto.UserImportResult;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class UserImporter {
+    public static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+
+    private static final String MALFORMED = "некорректная строка";
+    private static final String REJECTED = "строка отклонена базой данных";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final EmailFilter emailFilter;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public UserImporter(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        ObjectMapper objectMapper,
+                        EmailFilter emailFilter,
+                        @Value("${shareit.user.import.batch-size:1000}") int batchSize,
+                        @Value("${shareit.user.import.max-errors:1000}") int maxErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.emailFilter = emailFilter;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public UserImportResult importUsers(InputStream body, MediaType contentType) {
+        Charset charset = contentType.getCharset() == null ? StandardCharsets.UTF_8 : contentType.getCharset();
+        boolean csv = contentType.isCompatibleWith(TEXT_CSV);
+        long begin = System.nanoTime();
+        Progress progress = new Progress();
+        List<Row> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset))) {
+            long number = 0;
+            boolean first = true;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                boolean header = first && csv && isCsvHeader(line);
+                first = false;
+                if (header) {
+                    continue;
+                }
+                User user = csv ? parseCsv(line) : parseJson(line);
+                if (user == null) {
+                    progress.fail(number, null, MALFORMED);
+                    continue;
+                }
+                String error = UserServiceImpl.validateForCreate(user);
+                if (error != null) {
+                    progress.fail(number, user.getEmail(), error);
+                    continue;
+                }
+                batch.add(new Row(number, user.getName(), user.getEmail()));
+                if (batch.size() >= batchSize) {
+                    flush(batch, progress);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        flush(batch, progress);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        long rows = progress.imported + progress.failed;
+        long rowsPerSecond = rows * 1000 / Math.max(millis, 1);
+        log.info("Импорт пользователей: добавлено {}, отклонено {} за {} мс ({} строк/с)",
+                progress.imported, progress.failed, millis, rowsPerSecond);
+        return new UserImportResult(progress.imported, progress.failed, millis, rowsPerSecond, progress.errors);
+    }
+
+    private void flush(List<Row> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<String, Row> unique = new LinkedHashMap<>();
+        for (Row row : batch) {
+            if (unique.putIfAbsent(row.email, row) != null) {
+                progress.fail(row.line, row.email, UserServiceImpl.EMAIL_TAKEN);
+            }
+        }
+        List<Row> rows = new ArrayList<>(unique.values());
+        Set<String> existing;
+        try {
+            existing = transactionTemplate.execute(status -> insertNew(rows));
+        } catch (DataIntegrityViolationException e) {
+            insertOneByOne(rows, progress);
+            return;
+        }
+        for (Row row : rows) {
+            if (existing.contains(row.email)) {
+                progress.fail(row.line, row.email, UserServiceImpl.EMAIL_TAKEN);
+            } else {
+                emailFilter.add(row.email);
+                progress.imported++;
+            }
+        }
+    }
+
+    private Set<String> insertNew(List<Row> rows) {
+        Object[] candidates = rows.stream()
+                .map(row -> row.email)
+                .filter(emailFilter::mightContain)
+                .toArray();
+        Set<String> existing = new HashSet<>();
+        if (candidates.length > 0) {
+            String placeholders = String.join(", ", Collections.nCopies(candidates.length, "?"));
+            existing.addAll(jdbcTemplate.queryForList(
+                    "select email from users where email in (" + placeholders + ")", String.class, candidates));
+        }
+        List<Object[]> inserts = rows.stream()
+                .filter(row -> !existing.contains(row.email))
+                .map(row -> new Object[]{row.name, row.email})
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate("insert into users (name, email) values (?, ?)", inserts);
+        return existing;
+    }
+
+    private void insertOneByOne(List<Row> rows, Progress progress) {
+        log.info("Пакет из {} строк не вставлен целиком, вставляем построчно", rows.size());
+        for (Row row : rows) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                        "insert into users (name, email) values (?, ?)", row.name, row.email));
+                emailFilter.add(row.email);
+                progress.imported++;
+            } catch (DuplicateKeyException e) {
+                progress.fail(row.line, row.email, UserServiceImpl.EMAIL_TAKEN);
+            } catch (DataIntegrityViolationException e) {
+                progress.fail(row.line, row.email, REJECTED);
+            }
+        }
+    }
+
+    private User parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, User.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static User parseCsv(String line) {
+        List<String> fields = csvFields(line);
+        if (fields.size() != 2) {
+            return null;
+        }
+        return new User(null, fields.get(0), fields.get(1));
+    }
+
+    private static boolean isCsvHeader(String line) {
+        List<String> fields = csvFields(line);
+        return fields.size() == 2 && "name".equalsIgnoreCase(fields.get(0))
+                && "email".equalsIgnoreCase(fields.get(1));
+    }
+
+    private static List<String> csvFields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields.stream()
+                .map(value -> value.isEmpty() ? null : value)
+                .collect(Collectors.toList());
+    }
+
+    private class Progress {
+        private final List<UserImportResult.RowError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        private void fail(long line, String email, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new UserImportResult.RowError(line, email, message));
+            }
+        }
+    }
+
+    private static final class Row {
+        private final long line;
+        private final String name;
+        private final String email;
+
+        private Row(long line, String name, String email) {
+            this.line = line;
+            this.name = name;
+            this.email = email;
+        }
+    }
+}
@@ -10,6 +10,8 @@ import java.util.List;
 public interface UserService {
     List<User> findAllUsers();
 
+    List<User> findUsersAfter(Long after, Integer size);
+
     @Transactional
     User createUser(User user);
 
@@ -2,12 +2,16 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.User;
 
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.dao.EmailFilter;
+import ru.practicum.shareit.user.dao.UserCache;
 import ru.practicum.shareit.user.dao.UserRepository;
 
 import java.util.List;
@@ -18,57 +22,108 @@ import java.util.List;
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    static final String EMAIL_TAKEN = "пользователь с такой почтой уже существует";
+
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final EmailFilter emailFilter;
+    private final CallerContext callerContext;
 
     @Override
     public List<User> findAllUsers() {
         return userRepository.findAll();
     }
 
+    @Override
+    public List<User> findUsersAfter(Long after, Integer size) {
+        if (size < 1 || after < 0) {
+            throw new ValidationException("");
+        }
+        return userRepository.findOrderedByIdAfter(after, size);
+    }
+
     @Transactional
     @Override
     public User createUser(User user) {
         checkUserForCreate(user);
+        checkEmailIsFree(user.getEmail());
+        User saved;
         try {
-            return userRepository.save(user);
-        } catch (RuntimeException e) {
-            throw new RuntimeException();
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            log.info(EMAIL_TAKEN);
+            throw new ConflictException(EMAIL_TAKEN);
         }
+        emailFilter.add(saved.getEmail());
+        return saved;
     }
 
     @Transactional
     @Override
     public User patchUser(User user, Long id) {
         checkUserForPatch(user);
-        User oldUser = getUser(id);
+        User oldUser = userRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("такого юзера не существует"));
+        boolean emailChanged = user.getEmail() != null && !user.getEmail().equals(oldUser.getEmail());
+        if (emailChanged) {
+            checkEmailIsFree(user.getEmail());
+        }
         if (user.getName() != null) {
             oldUser.setName(user.getName());
         }
-        if (user.getEmail() != null) {
+        if (emailChanged) {
             oldUser.setEmail(user.getEmail());
         }
-        return userRepository.save(oldUser);
+        User saved;
+        try {
+            saved = userRepository.saveAndFlush(oldUser);
+        } catch (DataIntegrityViolationException e) {
+            log.info(EMAIL_TAKEN);
+            throw new ConflictException(EMAIL_TAKEN);
+        }
+        if (emailChanged) {
+            emailFilter.add(saved.getEmail());
+        }
+        userCache.evict(id);
+        callerContext.forget(id);
+        return saved;
     }
 
     @Override
     public User getUser(Long id) {
-        return userRepository.findById(id).orElseThrow(() -> new NotFoundException("такого юзера не существует"));
+        return userCache.find(id).orElseThrow(() -> new NotFoundException("такого юзера не существует"));
     }
 
     @Transactional
     @Override
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        userCache.evict(id);
+        callerContext.forget(id);
+    }
+
+    private void checkEmailIsFree(String email) {
+        if (emailFilter.mightContain(email) && userRepository.existsByEmail(email)) {
+            log.info(EMAIL_TAKEN);
+            throw new ConflictException(EMAIL_TAKEN);
+        }
     }
 
     private void checkUserForCreate(User user) {
+        String error = validateForCreate(user);
+        if (error != null) {
+            log.info(error);
+            throw new ValidationException(error);
+        }
+    }
+
+    static String validateForCreate(User user) {
         if (user.getName() == null || user.getName().equals("")) {
-            log.info("Имя пользователя не может быть пустым");
-            throw new ValidationException("Имя пользователя не может быть пустым");
+            return "Имя пользователя не может быть пустым";
         } else if (user.getEmail() == null || !user.getEmail().contains("@")) {
-            log.info("неправильный формат почты пользователя");
-            throw new ValidationException("неправильный формат почты пользователя");
+            return "неправильный формат почты пользователя";
         }
+        return null;
     }
 
     private void checkUserForPatch(User user) {
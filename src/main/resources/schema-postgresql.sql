@@ -0,0 +1,12 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_available_name_trgm ON items USING gin (upper(name) gin_trgm_ops)
+    WHERE is_available;
+CREATE INDEX IF NOT EXISTS idx_items_available_description_trgm ON items USING gin (upper(description) gin_trgm_ops)
+    WHERE is_available;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (setweight(to_tsvector('simple', coalesce(name, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(description, '')), 'B')) STORED;
+CREATE INDEX IF NOT EXISTS idx_items_available_search_vector ON items USING gin (search_vector)
+    WHERE is_available;
@@ -3,6 +3,7 @@ DROP TABLE IF EXISTS requests CASCADE;
 DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
+DROP TABLE IF EXISTS request_matches CASCADE;
 
 CREATE TABLE IF NOT EXISTS users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -37,6 +38,7 @@ CREATE TABLE IF NOT EXISTS bookings(
     item_id BIGINT NOT NULL REFERENCES items(id),
     booker_id  BIGINT NOT NULL REFERENCES users(id),
     status VARCHAR(51),
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT pk_bookings_id PRIMARY KEY (id)
 );
 
@@ -49,4 +51,16 @@ CREATE TABLE IF NOT EXISTS comments(
     CONSTRAINT pk_comments PRIMARY KEY (id)
 );
 
+CREATE TABLE IF NOT EXISTS request_matches(
+    request_id BIGINT NOT NULL REFERENCES requests(id) ON DELETE CASCADE,
+    item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+    score DOUBLE PRECISION NOT NULL,
+    created TIMESTAMP NOT NULL,
+    CONSTRAINT pk_request_matches PRIMARY KEY (request_id, item_id)
+);
 
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created, id);
+CREATE INDEX IF NOT EXISTS idx_request_matches_item ON request_matches (item_id);
@@ -0,0 +1,192 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserCache;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Slf4j
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS = 2000;
+    private static final int ITEMS = 4;
+    private static final int BOOKERS = 8;
+
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAllInBatch();
+        itemRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        userCache.clear();
+    }
+
+    @Test
+    void concurrentCreateBookingNeverOverlaps() throws Exception {
+        User owner = userService.createUser(makeUser("owner", "owner@concurrency.com"));
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemService.createItem(makeItemDto("item" + i), owner.getId()));
+        }
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookers.add(userService.createUser(makeUser("booker" + i, "booker" + i + "@concurrency.com")));
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        Random random = new Random(42);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            LocalDateTime start = base.plusHours(random.nextInt(200));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(4));
+            Long itemId = items.get(i % ITEMS).getId();
+            Long bookerId = bookers.get(i % BOOKERS).getId();
+            futures.add(executor.submit(() -> {
+                go.await();
+                try {
+                    bookingService.createBooking(makeBookingDto(start, end, bookerId, itemId), bookerId);
+                    created.incrementAndGet();
+                } catch (ConflictException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        go.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        log.info("{} createBooking calls on {} threads in {} ms ({} ops/s): {} created, {} rejected",
+                ATTEMPTS, THREADS, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                ATTEMPTS * 1_000_000_000L / Math.max(elapsed, 1), created.get(), rejected.get());
+
+        Assertions.assertEquals(ATTEMPTS, created.get() + rejected.get());
+        Assertions.assertTrue(rejected.get() > 0);
+        Map<Long, List<Booking>> byItem = bookingRepository.findAll().stream()
+                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
+        Assertions.assertEquals(created.get(), byItem.values().stream().mapToInt(List::size).sum());
+        for (List<Booking> bookings : byItem.values()) {
+            bookings.sort(Comparator.comparing(Booking::getStart));
+            for (int i = 1; i < bookings.size(); i++) {
+                Booking previous = bookings.get(i - 1);
+                Booking current = bookings.get(i);
+                Assertions.assertFalse(current.getStart().isBefore(previous.getEnd()),
+                        "booking " + current.getId() + " overlaps booking " + previous.getId());
+            }
+        }
+    }
+
+    @Test
+    void concurrentChangeStatusHasSingleWinner() throws Exception {
+        User owner = userService.createUser(makeUser("owner", "owner@concurrency.com"));
+        User booker = userService.createUser(makeUser("booker", "booker@concurrency.com"));
+        ItemDto item = itemService.createItem(makeItemDto("item"), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long bookingId = bookingService.createBooking(
+                makeBookingDto(start, start.plusDays(1), booker.getId(), item.getId()), booker.getId()).getId();
+
+        AtomicInteger won = new AtomicInteger();
+        AtomicInteger lost = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approve = i % 2 == 0;
+            futures.add(executor.submit(() -> {
+                go.await();
+                try {
+                    bookingService.changeStatus(bookingId, owner.getId(), approve);
+                    won.incrementAndGet();
+                } catch (ConflictException e) {
+                    lost.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        go.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        Assertions.assertEquals(1, won.get());
+        Assertions.assertEquals(THREADS - 1, lost.get());
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+        Assertions.assertNotEquals(StatusBooking.WAITING, booking.getStatus());
+        Assertions.assertEquals(1L, booking.getVersion());
+    }
+
+    private ItemDto makeItemDto(String name) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName(name);
+        itemDto.setDescription("desc");
+        itemDto.setAvailable(true);
+        return itemDto;
+    }
+
+    private User makeUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+
+    private BookingDto makeBookingDto(LocalDateTime start, LocalDateTime end, Long bookerId, Long itemId) {
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setStart(start);
+        bookingDto.setEnd(end);
+        bookingDto.setBooker(bookerId);
+        bookingDto.setItemId(itemId);
+        return bookingDto;
+    }
+}
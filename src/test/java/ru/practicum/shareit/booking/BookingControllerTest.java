@@ -14,6 +14,8 @@ import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ErrorHandler;
 
 
 import java.nio.charset.StandardCharsets;
@@ -45,11 +47,12 @@ public class BookingControllerTest {
     void setUp() {
         mvc = MockMvcBuilders
                 .standaloneSetup(controller)
+                .setControllerAdvice(new ErrorHandler())
                 .build();
 
 
         booking = new Booking(1L, null, null, null,
-                null, StatusBooking.WAITING);
+                null, StatusBooking.WAITING, 0L);
     }
 
     @Test
@@ -86,6 +89,17 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.item", is(booking.getItem())));
     }
 
+    @Test
+    void changeStatusOfDecidedBookingIsConflict() throws Exception {
+        when(bookingService.changeStatus(any(), any(), any()))
+                .thenThrow(new ConflictException(""));
+        mvc.perform(patch("/bookings/1")
+                        .queryParam("approved", "true")
+                        .header("X-Sharer-User-Id", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void getBooking() throws Exception {
         when(bookingService.getBooking(any(), any()))
@@ -120,6 +134,19 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item", is(booking.getItem())));
     }
 
+    @Test
+    void getBookingForUserByStatusAfter() throws Exception {
+        when(bookingService.getBookingForUserByStatusAfter(any(), any(), any(), any()))
+                .thenReturn(List.of(booking));
+        mvc.perform(get("/bookings")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .queryParam("after", "2024-07-06T12:12:12,5")
+                        .header("X-Sharer-User-Id", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(booking.getId()), Long.class));
+    }
+
     @Test
     void getBookingForOwnerByStatus() throws Exception {
         when(bookingService.getBookingForOwnerByStatus(any(), any(), any(), any()))
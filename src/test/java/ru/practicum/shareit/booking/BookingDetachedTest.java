@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.matching.RequestMatcher;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserCache;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingDetachedTest {
+    private final JdbcTemplate jdbcTemplate;
+    private final RequestMatcher requestMatcher;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
+    private final UserService userService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserCache userCache;
+
+    @AfterEach
+    void cleanUp() {
+        requestMatcher.awaitPending();
+        for (String table : List.of("request_matches", "comments", "bookings", "items", "requests", "users")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+        userCache.clear();
+    }
+
+    @Test
+    void detachedEntitiesPrintAndHashWithoutLoadingAssociations() {
+        User owner = userService.createUser(makeUser("owner", "owner@detached.com"));
+        User booker = userService.createUser(makeUser("booker", "booker@detached.com"));
+        ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setDescription("дрель");
+        itemRequestService.createRequest(itemRequest, booker.getId());
+        ItemDto item = itemService.createItem(new ItemDto(null, "item", "desc", true, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto bookingDto = new BookingDto(null, start, start.plusDays(1), booker.getId(), item.getId());
+        bookingService.createBooking(bookingDto, booker.getId());
+
+        Booking booking = bookingRepository.findAll().get(0);
+        Item loadedItem = itemRepository.findAll().get(0);
+        ItemRequest loadedRequest = itemRequestRepository.findAll().get(0);
+
+        Assertions.assertDoesNotThrow(() -> List.of(booking, loadedItem, loadedRequest).forEach(Object::toString));
+        Set<Object> entities = new HashSet<>(List.of(booking, loadedItem, loadedRequest));
+        Assertions.assertTrue(entities.contains(booking));
+        Assertions.assertTrue(entities.contains(loadedItem));
+        Assertions.assertTrue(entities.contains(loadedRequest));
+    }
+
+    private User makeUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,12 +13,14 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -25,6 +29,7 @@ import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -32,7 +37,8 @@ import static org.hamcrest.Matchers.*;
 
 @Transactional
 @SpringBootTest(
-        properties = "db.name=test",
+        properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true",
+                "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"},
         webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class BookingServiceImplTest {
@@ -156,6 +162,24 @@ public class BookingServiceImplTest {
         Assertions.assertEquals(e.getMessage(), "");
     }
 
+    @Test
+    void createBookingWithOverlap() {
+        User ow = userService.createUser(makeUser("Пётр", "some@email.com"));
+        User book = userService.createUser(makeUser("booker", "booker@email.com"));
+        User other = userService.createUser(makeUser("other", "other@email.com"));
+        ItemDto item = itemService.createItem(makeItemDto("name", "desc", true), ow.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        bookingService.createBooking(makeBookingDto(start, start.plusDays(2), book.getId(), item.getId()),
+                book.getId());
+        ConflictException e = Assertions.assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(makeBookingDto(start.plusDays(1), start.plusDays(3),
+                        other.getId(), item.getId()), other.getId()));
+        Assertions.assertEquals(e.getMessage(), "вещь уже забронирована на это время");
+        Booking adjacent = bookingService.createBooking(makeBookingDto(start.plusDays(2), start.plusDays(3),
+                other.getId(), item.getId()), other.getId());
+        assertThat(adjacent.getId(), notNullValue());
+    }
+
     @Test
     void changeStatus() {
         User ow = userService.createUser(makeUser("Пётр", "some@email.com"));
@@ -562,6 +586,63 @@ public class BookingServiceImplTest {
         }
     }
 
+    @Test
+    void getBookingForUserByStatusPastFillsPage() {
+        User ow = userService.createUser(makeUser("Пётр", "some@email.com"));
+        User book = userService.createUser(makeUser("booker", "booker@email.com"));
+        ItemDto itemDto = makeItemDto("name", "desc", true);
+        ItemDto item = itemService.createItem(itemDto, ow.getId());
+        Item bookedItem = new Item(item.getId(), "name", "desc", true,
+                new User(ow.getId(), "Пётр", "some@email.com"), null);
+        User booker = new User(book.getId(), "booker", "booker@email.com");
+        Booking past = makeBooking(LocalDateTime.now().minusDays(10), LocalDateTime.now().minusDays(9),
+                booker, bookedItem, StatusBooking.APPROVED);
+        em.persist(past);
+        em.persist(makeBooking(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                booker, bookedItem, StatusBooking.WAITING));
+        em.persist(makeBooking(LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4),
+                booker, bookedItem, StatusBooking.WAITING));
+        em.flush();
+        List<Booking> targetList = bookingService.getBookingForUserByStatus(book.getId(), "PAST", 0, 1);
+        assertThat(targetList, hasSize(1));
+        assertThat(targetList.get(0).getId(), equalTo(past.getId()));
+        targetList = bookingService.getBookingForUserByStatus(book.getId(), "FUTURE", 0, 2);
+        assertThat(targetList, hasSize(2));
+        Assertions.assertTrue(targetList.get(0).getStart().isAfter(targetList.get(1).getStart()));
+    }
+
+    @Test
+    void getBookingForUserByStatusAfter() {
+        User ow = userService.createUser(makeUser("Пётр", "some@email.com"));
+        User book = userService.createUser(makeUser("booker", "booker@email.com"));
+        ItemDto item = itemService.createItem(makeItemDto("name", "desc", true), ow.getId());
+        Item bookedItem = new Item(item.getId(), "name", "desc", true,
+                new User(ow.getId(), "Пётр", "some@email.com"), null);
+        User booker = new User(book.getId(), "booker", "booker@email.com");
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 1; i <= 3; i++) {
+            em.persist(makeBooking(now.plusDays(i), now.plusDays(i + 1),
+                    booker, bookedItem, StatusBooking.WAITING));
+        }
+        em.flush();
+        List<Booking> firstPage = bookingService.getBookingForUserByStatusAfter(book.getId(), "FUTURE", "", 2);
+        assertThat(firstPage, hasSize(2));
+        Booking last = firstPage.get(1);
+        List<Booking> secondPage = bookingService.getBookingForUserByStatusAfter(book.getId(), "FUTURE",
+                last.getStart() + "," + last.getId(), 2);
+        assertThat(secondPage, hasSize(1));
+        Assertions.assertTrue(secondPage.get(0).getStart().isBefore(last.getStart()));
+        List<Booking> ownerPage = bookingService.getBookingForOwnerByStatusAfter(ow.getId(), "ALL",
+                last.getStart() + "," + last.getId(), 20);
+        assertThat(ownerPage, hasSize(1));
+        ValidationException e = Assertions.assertThrows(ValidationException.class,
+                () -> bookingService.getBookingForUserByStatusAfter(book.getId(), "ALL", "abc", 2));
+        Assertions.assertEquals(e.getMessage(), "неверный курсор: abc");
+        e = Assertions.assertThrows(ValidationException.class,
+                () -> bookingService.getBookingForOwnerByStatusAfter(ow.getId(), "AAA", "", 2));
+        Assertions.assertEquals(e.getMessage(), "Unknown state: AAA");
+    }
+
     @Test
     void getBookingForOwnerByStatusAll() {
         User ow = userService.createUser(makeUser("Пётр", "some@email.com"));
@@ -592,6 +673,46 @@ public class BookingServiceImplTest {
         }
     }
 
+    @Test
+    void getBookingForOwnerByStatusAllWithManyItems() {
+        User ow = userService.createUser(makeUser("Пётр", "some@email.com"));
+        User book = userService.createUser(makeUser("booker", "booker@email.com"));
+        ItemDto item = null;
+        for (int i = 0; i < 25; i++) {
+            item = itemService.createItem(makeItemDto("name" + i, "desc" + i, true), ow.getId());
+        }
+        Booking booking = makeBooking(
+                LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2),
+                new User(book.getId(), "booker", "booker@email.com"),
+                new Item(item.getId(), item.getName(), item.getDescription(), true,
+                        new User(ow.getId(), "Пётр", "some@email.com"), null),
+                StatusBooking.WAITING);
+        em.persist(booking);
+        em.flush();
+        List<Booking> targetList = bookingService.getBookingForOwnerByStatus(ow.getId(), "ALL", 0, 20);
+        assertThat(targetList, hasSize(1));
+        assertThat(targetList.get(0).getId(), equalTo(booking.getId()));
+        targetList = bookingService.getBookingForOwnerByStatus(ow.getId(), "FUTURE", 0, 20);
+        assertThat(targetList, hasSize(1));
+        targetList = bookingService.getBookingForOwnerByStatus(book.getId(), "ALL", 0, 20);
+        assertThat(targetList, hasSize(0));
+    }
+
+    @Test
+    void getBookingForOwnerByStatusStatementCountIsConstant() {
+        User ow = userService.createUser(makeUser("Пётр", "some@email.com"));
+        User book = userService.createUser(makeUser("booker", "booker@email.com"));
+        addRequestedBookings(ow, book, 2);
+        long few = countStatements(() ->
+                readGraph(bookingService.getBookingForOwnerByStatus(ow.getId(), "ALL", 0, 50)));
+        addRequestedBookings(ow, book, 20);
+        long many = countStatements(() ->
+                readGraph(bookingService.getBookingForOwnerByStatus(ow.getId(), "ALL", 0, 50)));
+        Assertions.assertEquals(few, many);
+        Assertions.assertEquals(2, many);
+    }
+
     @Test
     void getBookingForOwnerByStatusCurrent() {
         User ow = userService.createUser(makeUser("Пётр", "some@email.com"));
@@ -743,6 +864,38 @@ public class BookingServiceImplTest {
     }
 
 
+    private void addRequestedBookings(User owner, User booker, int count) {
+        for (int i = 0; i < count; i++) {
+            User requestor = userService.createUser(
+                    makeUser("requestor", "requestor" + i + "-" + count + "@email.com"));
+            ItemRequest request = new ItemRequest(null, "request" + i, requestor, LocalDateTime.now());
+            em.persist(request);
+            ItemDto itemDto = makeItemDto("name" + i, "desc" + i, true);
+            itemDto.setRequestId(request.getId());
+            ItemDto item = itemService.createItem(itemDto, owner.getId());
+            em.persist(makeBooking(LocalDateTime.now().plusDays(i + 1), LocalDateTime.now().plusDays(i + 2),
+                    em.find(User.class, booker.getId()), em.find(Item.class, item.getId()), StatusBooking.WAITING));
+        }
+        em.flush();
+    }
+
+    private void readGraph(List<Booking> bookings) {
+        for (Booking booking : bookings) {
+            booking.getBooker().getName();
+            booking.getItem().getOwner().getName();
+            booking.getItem().getRequest().getRequestor().getName();
+        }
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        em.flush();
+        em.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
     private ItemDto makeItemDto(String name, String description, Boolean available) {
         ItemDto itemDto = new ItemDto();
         itemDto.setName(name);
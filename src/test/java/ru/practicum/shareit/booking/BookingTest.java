@@ -15,11 +15,11 @@ public class BookingTest {
         Booking booking1 = new Booking(1L,
                 LocalDateTime.of(2010, 12, 12, 12, 21, 12),
                 LocalDateTime.of(2010, 12, 12, 12, 21, 12),
-                null, null, StatusBooking.WAITING);
+                null, null, StatusBooking.WAITING, 0L);
         Booking booking2 = new Booking(1L,
                 LocalDateTime.of(2010, 12, 12, 12, 21, 12),
                 LocalDateTime.of(2010, 12, 12, 12, 21, 12),
-                null, null, StatusBooking.WAITING);
+                null, null, StatusBooking.WAITING, 0L);
         assertEquals(booking1.equals(booking2), true);
         booking2.hashCode();
     }
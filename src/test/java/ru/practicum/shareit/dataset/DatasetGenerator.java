@@ -0,0 +1,275 @@
+package ru.practicum.shareit.dataset;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+@Slf4j
+@RequiredArgsConstructor
+public class DatasetGenerator {
+    static final String[] NOUNS = {"drill", "saw", "ladder", "tent", "bike", "projector", "guitar", "kayak",
+        "hammer", "camera", "tripod", "scooter", "skis", "snowboard", "grill", "speaker", "microphone", "lamp",
+        "sleeping bag", "backpack", "stroller", "car seat", "vacuum", "mixer", "sewing machine", "telescope",
+        "drone", "tablet", "console", "board game", "boat", "trailer", "generator", "compressor", "chainsaw",
+        "lawn mower", "wheelbarrow", "screwdriver", "wrench", "jack", "tile cutter", "paint sprayer"};
+    static final String[] ADJECTIVES = {"new", "old", "red", "black", "electric", "cordless", "compact", "heavy",
+        "professional", "folding", "portable", "vintage", "wooden", "steel", "large", "small", "quiet", "fast"};
+    static final String[] PHRASES = {"in good condition", "barely used", "with a case", "with spare parts",
+        "pickup only", "for weekend trips", "for the garden", "for repairs", "for kids", "works perfectly",
+        "batteries included", "cleaned after every rent"};
+
+    private static final int BATCH_SIZE = 5000;
+    private static final String[] TABLES = {"users", "requests", "items", "bookings", "comments"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatasetGenerator(DataSource dataSource) {
+        this(new JdbcTemplate(dataSource));
+    }
+
+    public Result generate(Spec spec) {
+        if (spec.getUsers() < 1 || spec.getItems() < 1 && spec.getBookings() > 0) {
+            throw new IllegalArgumentException("для бронирований нужны пользователи и вещи");
+        }
+        long begin = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(spec.getSeed());
+        Map<String, Long> offsets = new HashMap<>();
+        for (String table : TABLES) {
+            offsets.put(table, jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class));
+        }
+        long userOffset = offsets.get("users");
+        long requestOffset = offsets.get("requests");
+        long itemOffset = offsets.get("items");
+        long bookingOffset = offsets.get("bookings");
+        long commentOffset = offsets.get("comments");
+        ZipfSampler owners = new ZipfSampler(spec.getUsers(), spec.getOwnerSkew());
+        ZipfSampler popularity = new ZipfSampler(spec.getItems(), spec.getItemSkew());
+        ZipfSampler nouns = new ZipfSampler(NOUNS.length, 1.0);
+        LocalDateTime anchor = spec.getAnchor();
+
+        Batch users = new Batch("insert into users (id, name, email) values (?, ?, ?)");
+        for (int i = 1; i <= spec.getUsers(); i++) {
+            long id = userOffset + i;
+            users.add(id, "user" + id, "user" + id + "@shareit.test");
+        }
+        users.flush();
+
+        Batch requests = new Batch("insert into requests (id, description, requestor_id, created) values (?, ?, ?, ?)");
+        for (int i = 1; i <= spec.getRequests(); i++) {
+            requests.add(requestOffset + i,
+                    "looking for a " + NOUNS[nouns.next(random)] + " " + PHRASES[random.nextInt(PHRASES.length)],
+                    userOffset + 1 + random.nextInt(spec.getUsers()),
+                    Timestamp.valueOf(anchor.minusMinutes(random.nextInt(365 * 24 * 60))));
+        }
+        requests.flush();
+
+        long[] itemOwners = new long[spec.getItems()];
+        Batch items = new Batch("insert into items (id, name, description, is_available, owner_id, request_id) "
+                + "values (?, ?, ?, ?, ?, ?)");
+        for (int i = 0; i < spec.getItems(); i++) {
+            itemOwners[i] = userOffset + 1 + owners.next(random);
+            String noun = NOUNS[nouns.next(random)];
+            Long request = spec.getRequests() > 0 && random.nextInt(10) == 0
+                    ? requestOffset + 1 + random.nextInt(spec.getRequests()) : null;
+            items.add(itemOffset + i + 1,
+                    ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + noun,
+                    noun + " " + PHRASES[random.nextInt(PHRASES.length)] + ", "
+                            + PHRASES[random.nextInt(PHRASES.length)],
+                    random.nextInt(10) != 0, itemOwners[i], request);
+        }
+        items.flush();
+
+        long[] itemCursors = new long[spec.getItems()];
+        Arrays.fill(itemCursors, -spec.getHistoryDays() * 24L);
+        double commentRate = spec.getBookings() == 0
+                ? 0 : Math.min(1.0, (double) spec.getComments() / spec.getBookings());
+        Batch bookings = new Batch("insert into bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "values (?, ?, ?, ?, ?, ?)");
+        Batch comments = new Batch("insert into comments (id, text, item_id, author_id, created) "
+                + "values (?, ?, ?, ?, ?)");
+        long commentCount = 0;
+        for (int i = 0; i < spec.getBookings(); i++) {
+            int item = popularity.next(random);
+            long booker = userOffset + 1 + random.nextInt(spec.getUsers());
+            if (booker == itemOwners[item] && spec.getUsers() > 1) {
+                booker = userOffset + 1 + (booker - userOffset) % spec.getUsers();
+            }
+            long startHour = itemCursors[item] + random.nextInt(72);
+            long endHour = startHour + 24 + random.nextInt(14 * 24);
+            itemCursors[item] = endHour;
+            LocalDateTime start = anchor.plusHours(startHour);
+            LocalDateTime end = anchor.plusHours(endHour);
+            String status;
+            int roll = random.nextInt(10);
+            if (endHour < 0) {
+                status = roll == 0 ? "REJECTED" : "APPROVED";
+            } else {
+                status = roll == 0 ? "REJECTED" : roll < 5 ? "APPROVED" : "WAITING";
+            }
+            bookings.add(bookingOffset + i + 1, Timestamp.valueOf(start), Timestamp.valueOf(end),
+                    itemOffset + item + 1, booker, status);
+            if (endHour < 0 && "APPROVED".equals(status) && random.nextDouble() < commentRate) {
+                commentCount++;
+                comments.add(commentOffset + commentCount, "thanks, the " + NOUNS[nouns.next(random)] + " "
+                                + PHRASES[random.nextInt(PHRASES.length)], itemOffset + item + 1, booker,
+                        Timestamp.valueOf(end.plusHours(1 + random.nextInt(48))));
+            }
+        }
+        bookings.flush();
+        comments.flush();
+
+        restartIdentity("users", userOffset + spec.getUsers());
+        restartIdentity("requests", requestOffset + spec.getRequests());
+        restartIdentity("items", itemOffset + spec.getItems());
+        restartIdentity("bookings", bookingOffset + spec.getBookings());
+        restartIdentity("comments", commentOffset + commentCount);
+
+        Result result = new Result(spec.getUsers(), spec.getRequests(), spec.getItems(), spec.getBookings(),
+                commentCount, System.currentTimeMillis() - begin);
+        log.info("Сгенерировано {} пользователей, {} запросов, {} вещей, {} бронирований и {} отзывов за {} мс",
+                result.getUsers(), result.getRequests(), result.getItems(), result.getBookings(),
+                result.getComments(), result.getMillis());
+        return result;
+    }
+
+    private void restartIdentity(String table, long lastId) {
+        jdbcTemplate.execute("alter table " + table + " alter column id restart with " + (lastId + 1));
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("неизвестный аргумент: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                options.getOrDefault("url", "jdbc:postgresql://localhost:5432/shareit?reWriteBatchedInserts=true"),
+                options.getOrDefault("user", "postgres"),
+                options.getOrDefault("password", "postgres"));
+        if (options.containsKey("init-schema")) {
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        }
+        Spec.SpecBuilder spec = Spec.builder();
+        if (options.containsKey("seed")) {
+            spec.seed(Long.parseLong(options.get("seed")));
+        }
+        if (options.containsKey("users")) {
+            spec.users(Integer.parseInt(options.get("users")));
+        }
+        if (options.containsKey("requests")) {
+            spec.requests(Integer.parseInt(options.get("requests")));
+        }
+        if (options.containsKey("items")) {
+            spec.items(Integer.parseInt(options.get("items")));
+        }
+        if (options.containsKey("bookings")) {
+            spec.bookings(Integer.parseInt(options.get("bookings")));
+        }
+        if (options.containsKey("comments")) {
+            spec.comments(Integer.parseInt(options.get("comments")));
+        }
+        if (options.containsKey("anchor")) {
+            spec.anchor(LocalDateTime.parse(options.get("anchor")));
+        }
+        new DatasetGenerator(dataSource).generate(spec.build());
+    }
+
+    @Getter
+    @Builder
+    public static class Spec {
+        @Builder.Default
+        private final long seed = 42;
+        @Builder.Default
+        private final int users = 10_000;
+        @Builder.Default
+        private final int requests = 5_000;
+        @Builder.Default
+        private final int items = 50_000;
+        @Builder.Default
+        private final int bookings = 500_000;
+        @Builder.Default
+        private final int comments = 100_000;
+        @Builder.Default
+        private final double ownerSkew = 1.1;
+        @Builder.Default
+        private final double itemSkew = 0.8;
+        @Builder.Default
+        private final int historyDays = 730;
+        @Builder.Default
+        private final LocalDateTime anchor = LocalDate.now().atStartOfDay();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Result {
+        private final long users;
+        private final long requests;
+        private final long items;
+        private final long bookings;
+        private final long comments;
+        private final long millis;
+    }
+
+    private static class ZipfSampler {
+        private final double[] cdf;
+
+        ZipfSampler(int size, double skew) {
+            cdf = new double[Math.max(size, 1)];
+            double sum = 0;
+            for (int i = 0; i < cdf.length; i++) {
+                sum += 1.0 / Math.pow(i + 1, skew);
+                cdf[i] = sum;
+            }
+            for (int i = 0; i < cdf.length; i++) {
+                cdf[i] /= sum;
+            }
+        }
+
+        int next(SplittableRandom random) {
+            int index = Arrays.binarySearch(cdf, random.nextDouble());
+            return Math.min(index < 0 ? -index - 1 : index, cdf.length - 1);
+        }
+    }
+
+    private class Batch {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+        Batch(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
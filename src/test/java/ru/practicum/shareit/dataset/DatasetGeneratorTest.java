@@ -0,0 +1,87 @@
+package ru.practicum.shareit.dataset;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserCache;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class DatasetGeneratorTest {
+    private final JdbcTemplate jdbcTemplate;
+    private final UserService userService;
+    private final UserCache userCache;
+
+    @AfterEach
+    void cleanUp() {
+        for (String table : List.of("comments", "bookings", "items", "requests", "users")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+        userCache.clear();
+    }
+
+    @Test
+    void generate() {
+        DatasetGenerator.Result result = new DatasetGenerator(jdbcTemplate).generate(makeSpec());
+
+        Assertions.assertEquals(200L, count("users"));
+        Assertions.assertEquals(50L, count("requests"));
+        Assertions.assertEquals(1000L, count("items"));
+        Assertions.assertEquals(5000L, count("bookings"));
+        Assertions.assertEquals(result.getComments(), count("comments"));
+        Assertions.assertTrue(result.getComments() > 0);
+        Assertions.assertEquals(0L, jdbcTemplate.queryForObject("select count(*) from bookings b "
+                + "join items i on i.id = b.item_id where i.owner_id = b.booker_id", Long.class));
+        Long topOwnerItems = jdbcTemplate.queryForObject("select max(c) from "
+                + "(select count(*) as c from items group by owner_id) t", Long.class);
+        Assertions.assertTrue(topOwnerItems > 1000 / 200 * 10);
+
+        User user = userService.createUser(new User(null, "after", "after@shareit.test"));
+        Assertions.assertEquals(201L, user.getId());
+    }
+
+    @Test
+    void generateIsDeterministic() {
+        new DatasetGenerator(jdbcTemplate).generate(makeSpec());
+        List<Map<String, Object>> first = snapshot();
+        cleanUp();
+        new DatasetGenerator(jdbcTemplate).generate(makeSpec());
+        Assertions.assertEquals(first, snapshot());
+    }
+
+    private List<Map<String, Object>> snapshot() {
+        return jdbcTemplate.queryForList("select (select count(*) from comments) as comments, "
+                + "(select sum(owner_id * id) from items) as owners, "
+                + "(select sum(booker_id * id + item_id) from bookings) as bookings, "
+                + "(select max(end_date) from bookings) as last_end, "
+                + "(select min(name) from items) as first_name");
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+    }
+
+    private DatasetGenerator.Spec makeSpec() {
+        return DatasetGenerator.Spec.builder()
+                .seed(7)
+                .users(200)
+                .requests(50)
+                .items(1000)
+                .bookings(5000)
+                .comments(500)
+                .anchor(LocalDateTime.of(2030, 1, 1, 0, 0))
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.FullTextItemSearch;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.transaction.Transactional;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Transactional
+@SpringBootTest(
+        properties = {"db.name=test", "shareit.search.mode=fulltext"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class FullTextItemSearchTest {
+    private final ItemSearch itemSearch;
+    private final ItemService itemService;
+    private final UserService userService;
+
+    @Test
+    void searchFallsBackToLikeOnH2() {
+        assertThat(itemSearch, instanceOf(FullTextItemSearch.class));
+        User user = userService.createUser(new User(null, "Пётр", "some@email.com"));
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Дрель");
+        itemDto.setDescription("Простая дрель");
+        itemDto.setAvailable(true);
+        ItemDto item = itemService.createItem(itemDto, user.getId());
+        List<ItemDto> targetItems = itemService.searchItemsForText("дРе", 0, 20);
+        assertThat(targetItems, hasSize(1));
+        assertThat(targetItems.get(0).getId(), equalTo(item.getId()));
+    }
+
+    @Test
+    void searchWithBooleanQueryOnH2() {
+        User user = userService.createUser(new User(null, "Пётр", "some@email.com"));
+        ItemDto drill = itemService.createItem(makeItemDto("drill", "cordless, 100% charged"), user.getId());
+        ItemDto hammerDrill = itemService.createItem(makeItemDto("hammer drill", "corded"), user.getId());
+        ItemDto saw = itemService.createItem(makeItemDto("saw", "cordless"), user.getId());
+        assertThat(ids(itemService.searchItemsForText("drill cordless", 0, 20)), contains(drill.getId()));
+        assertThat(ids(itemService.searchItemsForText("drill -\"hammer drill\"", 0, 20)), contains(drill.getId()));
+        assertThat(ids(itemService.searchItemsForText("hammer OR saw", 0, 20)),
+                contains(hammerDrill.getId(), saw.getId()));
+        assertThat(ids(itemService.searchItemsForText("cordless NOT drill", 0, 20)), contains(saw.getId()));
+        assertThat(ids(itemService.searchItemsForText("100%", 0, 20)), contains(drill.getId()));
+        assertThat(ids(itemService.searchItemsForText("0_", 0, 20)), empty());
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+
+    private ItemDto makeItemDto(String name, String description) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName(name);
+        itemDto.setDescription(description);
+        itemDto.setAvailable(true);
+        return itemDto;
+    }
+}
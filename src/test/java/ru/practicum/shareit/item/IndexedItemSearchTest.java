@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItemSearch;
+import ru.practicum.shareit.item.search.ItemPopularity;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class IndexedItemSearchTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ItemPopularity itemPopularity;
+
+    @InjectMocks
+    private IndexedItemSearch itemSearch;
+
+    @Test
+    void rebuildKeepsUpdatesCommittedDuringScan() throws Exception {
+        doAnswer(invocation -> {
+            itemSearch.index(makeItem(1L, "пила", true));
+            itemSearch.index(makeItem(2L, "палатка", true));
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong("id")).thenReturn(1L);
+            when(rs.getString("name")).thenReturn("дрель");
+            when(rs.getString("description")).thenReturn("описание");
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        when(itemRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<Item> items = new ArrayList<>();
+            ids.forEach(id -> items.add(makeItem(id, "вещь", true)));
+            return items;
+        });
+
+        itemSearch.rebuild();
+
+        Assertions.assertEquals(List.of(1L), ids(itemSearch.search("пила", 0, 20)));
+        Assertions.assertEquals(List.of(2L), ids(itemSearch.search("палатка", 0, 20)));
+        Assertions.assertEquals(List.of(), ids(itemSearch.search("дрель", 0, 20)));
+
+        itemSearch.index(makeItem(2L, "палатка", false));
+        Assertions.assertEquals(List.of(), ids(itemSearch.search("палатка", 0, 20)));
+    }
+
+    @Test
+    void rollbackDoesNotUndoLaterPatch() {
+        when(itemRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<Item> items = new ArrayList<>();
+            ids.forEach(id -> items.add(makeItem(id, "вещь", true)));
+            return items;
+        });
+        itemSearch.index(makeItem(1L, "дрель", true));
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> rolledBack;
+        try {
+            itemSearch.index(makeItem(1L, "пила", true));
+            rolledBack = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        itemSearch.index(makeItem(1L, "палатка", true));
+
+        rolledBack.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        Assertions.assertEquals(List.of(1L), ids(itemSearch.search("палатка", 0, 20)));
+        Assertions.assertEquals(List.of(), ids(itemSearch.search("дрель", 0, 20)));
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+
+    private static Item makeItem(Long id, String name, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription("описание");
+        item.setAvailable(available);
+        return item;
+    }
+}
@@ -139,6 +139,19 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].available", is(itemDto.getAvailable())));
     }
 
+    @Test
+    void suggestItemNames() throws Exception {
+        when(itemService.suggestItemNames("dr", 10))
+                .thenReturn(List.of("drill", "drone"));
+        mvc.perform(get("/items/suggest")
+                        .queryParam("prefix", "dr")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]", is("drill")))
+                .andExpect(jsonPath("$[1]", is("drone")));
+    }
+
     @Test
     void addComment() throws Exception {
         when(itemService.addComment(any(), any(), any()))
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemPopularity;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserCache;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemPopularityTest {
+    private final ItemPopularity itemPopularity;
+    private final ItemSearchCache itemSearchCache;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAllInBatch();
+        itemRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        userCache.clear();
+        itemSearchCache.clear();
+    }
+
+    @Test
+    void rejectedBookingsDoNotRaisePopularity() {
+        User owner = userService.createUser(makeUser("owner", "owner@popularity.com"));
+        User booker = userService.createUser(makeUser("booker", "booker@popularity.com"));
+        ItemDto item = itemService.createItem(makeItemDto("дрель"), owner.getId());
+        itemPopularity.rebuild();
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            bookings.add(bookingService.createBooking(makeBookingDto(start.plusDays(i), start.plusDays(i).plusHours(1),
+                    booker.getId(), item.getId()), booker.getId()));
+        }
+        Assertions.assertEquals(Math.log1p(3), itemPopularity.score(item.getId()));
+
+        bookingService.changeStatus(bookings.get(0).getId(), owner.getId(), false);
+        bookingService.changeStatus(bookings.get(1).getId(), owner.getId(), false);
+        bookingService.changeStatus(bookings.get(2).getId(), owner.getId(), true);
+        Assertions.assertEquals(Math.log1p(1), itemPopularity.score(item.getId()));
+
+        itemPopularity.rebuild();
+        Assertions.assertEquals(Math.log1p(1), itemPopularity.score(item.getId()));
+    }
+
+    @Test
+    void rebuildKeepsEventsCommittedDuringScan() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        ItemPopularity popularity = new ItemPopularity(jdbcTemplate, new ItemSearchCache(0, 0));
+        AtomicInteger scans = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (scans.getAndIncrement() == 0) {
+                popularity.recordBooking(makeItem(1L));
+                popularity.recordComment(makeItem(2L));
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("item_id")).thenReturn(1L);
+                when(rs.getLong("total")).thenReturn(2L);
+                invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        popularity.rebuild();
+
+        Assertions.assertEquals(Math.log1p(3), popularity.score(1L));
+        Assertions.assertEquals(Math.log1p(3), popularity.score(2L));
+    }
+
+    @Test
+    void newBookingReordersCachedSearchPage() {
+        User owner = userService.createUser(makeUser("owner", "owner@popularity.com"));
+        User booker = userService.createUser(makeUser("booker", "booker@popularity.com"));
+        ItemDto first = itemService.createItem(makeItemDto("бетономешалка"), owner.getId());
+        ItemDto second = itemService.createItem(makeItemDto("бетономешалка"), owner.getId());
+        itemPopularity.rebuild();
+        Assertions.assertEquals(List.of(first.getId(), second.getId()), searchIds("бетономешалка"));
+        long hits = itemSearchCache.hits();
+        Assertions.assertEquals(List.of(first.getId(), second.getId()), searchIds("бетономешалка"));
+        Assertions.assertEquals(hits + 1, itemSearchCache.hits());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        bookingService.createBooking(makeBookingDto(start, start.plusHours(1), booker.getId(), second.getId()),
+                booker.getId());
+
+        Assertions.assertEquals(List.of(second.getId(), first.getId()), searchIds("бетономешалка"));
+    }
+
+    private List<Long> searchIds(String text) {
+        return itemService.searchItemsForText(text, 0, 20).stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private Item makeItem(Long id) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("вещь");
+        item.setDescription("desc");
+        item.setAvailable(true);
+        return item;
+    }
+
+    private ItemDto makeItemDto(String name) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName(name);
+        itemDto.setDescription("desc");
+        itemDto.setAvailable(true);
+        return itemDto;
+    }
+
+    private User makeUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+
+    private BookingDto makeBookingDto(LocalDateTime start, LocalDateTime end, Long bookerId, Long itemId) {
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setStart(start);
+        bookingDto.setEnd(end);
+        bookingDto.setBooker(bookerId);
+        bookingDto.setItemId(itemId);
+        return bookingDto;
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ItemSearchCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void getReturnsCachedResultForSameQueryAndPage() {
+        ItemSearchCache cache = new ItemSearchCache(100, 1 << 20);
+        List<ItemDto> first = cache.get("drill  cordless", 0, 20, this::load);
+        List<ItemDto> second = cache.get("drill cordless", 0, 20, this::load);
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(1, loads.get());
+        cache.get("drill cordless", 1, 20, this::load);
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals(1, cache.hits());
+        Assertions.assertEquals(2, cache.misses());
+    }
+
+    @Test
+    void invalidateDropsOnlyQueriesMatchingChangedItem() {
+        ItemSearchCache cache = new ItemSearchCache(100, 1 << 20);
+        cache.get("drill", 0, 20, this::load);
+        cache.get("tent", 0, 20, this::load);
+        cache.invalidate(null, makeItemDto("Hammer DRILL", "heavy", true));
+        cache.get("drill", 0, 20, this::load);
+        cache.get("tent", 0, 20, this::load);
+        Assertions.assertEquals(3, loads.get());
+
+        cache.invalidate(makeItemDto("tent", "for two", false), makeItemDto("tent", "for three", false));
+        cache.get("tent", 0, 20, this::load);
+        Assertions.assertEquals(3, loads.get());
+
+        cache.invalidate(makeItemDto("old", "for camping", true), makeItemDto("old", "for camping", false));
+        cache.get("camp", 0, 20, this::load);
+        cache.invalidate(makeItemDto("large tent", "for camping", true), null);
+        cache.get("camp", 0, 20, this::load);
+        Assertions.assertEquals(5, loads.get());
+    }
+
+    @Test
+    void putEvictsLeastRecentlyUsedEntries() {
+        ItemSearchCache cache = new ItemSearchCache(2, 1 << 20);
+        cache.get("drill", 0, 20, this::load);
+        cache.get("tent", 0, 20, this::load);
+        cache.get("drill", 0, 20, this::load);
+        cache.get("saw", 0, 20, this::load);
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(1, cache.evictions());
+        cache.get("drill", 0, 20, this::load);
+        Assertions.assertEquals(3, loads.get());
+        cache.get("tent", 0, 20, this::load);
+        Assertions.assertEquals(4, loads.get());
+    }
+
+    @Test
+    void putEvictsEntriesOverMemoryLimit() {
+        ItemSearchCache cache = new ItemSearchCache(100, 1000);
+        cache.get("drill", 0, 20, this::load);
+        cache.get("tent", 0, 20, this::load);
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertTrue(cache.bytes() <= 1000);
+        Assertions.assertEquals(1, cache.evictions());
+    }
+
+    @Test
+    void invalidateDuringLoadMakesLoadedPageStale() {
+        ItemSearchCache cache = new ItemSearchCache(100, 1 << 20);
+        cache.get("drill", 0, 20, () -> {
+            cache.invalidate(null, makeItemDto("drill", "new", true));
+            return load();
+        });
+        cache.get("drill", 0, 20, this::load);
+        Assertions.assertEquals(2, loads.get());
+        cache.get("drill", 0, 20, this::load);
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictedAndClearedQueriesAreInvalidatedAfterReload() {
+        ItemSearchCache cache = new ItemSearchCache(1, 1 << 20);
+        cache.get("drill", 0, 20, this::load);
+        cache.get("tent", 0, 20, this::load);
+        cache.get("drill", 0, 20, this::load);
+        Assertions.assertEquals(3, loads.get());
+        cache.invalidate(null, makeItemDto("electric drill", "cordless", true));
+        cache.get("drill", 0, 20, this::load);
+        Assertions.assertEquals(4, loads.get());
+
+        cache.clear();
+        cache.get("rill", 0, 20, this::load);
+        cache.invalidate(makeItemDto("drill", "old", true), null);
+        cache.get("rill", 0, 20, this::load);
+        Assertions.assertEquals(6, loads.get());
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.get("saw", 0, 20, () -> {
+            throw new IllegalStateException();
+        }));
+        cache.get("saw", 0, 20, this::load);
+        cache.get("saw", 0, 20, this::load);
+        Assertions.assertEquals(7, loads.get());
+    }
+
+    @Test
+    void queriesWithLongWordsAreNotCached() {
+        ItemSearchCache cache = new ItemSearchCache(100, 1 << 20);
+        String word = "x".repeat(40);
+        cache.get(word, 0, 20, this::load);
+        cache.get(word, 0, 20, this::load);
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    private List<ItemDto> load() {
+        loads.incrementAndGet();
+        return List.of(makeItemDto("drill " + "x".repeat(100), "cordless " + "y".repeat(100), true),
+                makeItemDto("drill", "corded", true));
+    }
+
+    private ItemDto makeItemDto(String name, String description, Boolean available) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName(name);
+        itemDto.setDescription(description);
+        itemDto.setAvailable(available);
+        return itemDto;
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+import java.util.Set;
+
+public class ItemSearchIndexTest {
+
+    @Test
+    void searchMatchesSubstringIgnoringCase() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.put(1L, "Дрель", "Аккумуляторная дрель");
+        index.put(2L, "Отвёртка", "Простая отвёртка");
+        index.put(3L, "Пила", "Ручная пила по дереву");
+        Assertions.assertEquals(List.of(1L), index.search("дРеЛь", 0, 20));
+        Assertions.assertEquals(List.of(1L, 2L, 3L), index.search("р", 0, 20));
+        Assertions.assertEquals(List.of(3L), index.search("ая пила по", 0, 20));
+        Assertions.assertEquals(List.of(), index.search("дрель пила", 0, 20));
+        Assertions.assertEquals(List.of(), index.search("", 0, 20));
+    }
+
+    @Test
+    void searchRanksNameMatchesAndPopularItemsFirst() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.put(1L, "saw", "no drill included");
+        index.put(2L, "drill", "cordless");
+        index.put(3L, "tent", "for camping");
+        index.put(4L, "ladder", "for the garden");
+        Assertions.assertEquals(List.of(2L, 1L), index.search("drill", 0, 20));
+        Assertions.assertEquals(List.of(1L), index.search("drill", 1, 20));
+        Assertions.assertEquals(List.of(1L, 2L), index.search("drill", 0, 20, id -> id == 1 ? Math.log1p(20) : 0));
+    }
+
+    @Test
+    void searchMatchesWordsInNameAndDescription() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.put(1L, "drill", "cordless");
+        Assertions.assertEquals(List.of(1L), index.search("drill cordless", 0, 20));
+        Assertions.assertEquals(List.of(1L), index.search("drill AND cordless", 0, 20));
+        Assertions.assertEquals(List.of(), index.search("\"drill cordless\"", 0, 20));
+        Assertions.assertEquals(List.of(), index.search("llco", 0, 20));
+    }
+
+    @Test
+    void searchEvaluatesBooleanQueries() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.put(1L, "drill", "cordless");
+        index.put(2L, "cordless saw", "sharp");
+        index.put(3L, "hammer drill", "heavy duty");
+        Assertions.assertEquals(List.of(3L), index.search("\"hammer drill\"", 0, 20));
+        Assertions.assertEquals(List.of(), index.search("\"drill hammer\"", 0, 20));
+        Assertions.assertEquals(List.of(3L), index.search("drill NOT cordless", 0, 20));
+        Assertions.assertEquals(List.of(1L), index.search("drill -hammer", 0, 20));
+        Assertions.assertEquals(List.of(2L, 1L), index.search("cordless -\"hammer drill\"", 0, 20));
+        Assertions.assertEquals(3, index.search("drill OR saw", 0, 20).size());
+        Assertions.assertEquals(List.of(2L), index.search("saw OR -drill", 0, 20));
+        Assertions.assertEquals(List.of(), index.search("NOT drill", 0, 20));
+    }
+
+    @Test
+    void searchPagesInIdOrder() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        for (long id = 40; id >= 1; id--) {
+            index.put(id, "tent " + id, "for camping");
+        }
+        Assertions.assertEquals(List.of(11L, 12L, 13L, 14L, 15L), index.search("tent", 10, 5));
+        Assertions.assertEquals(List.of(40L), index.search("camp", 39, 5));
+        Assertions.assertEquals(40, index.size());
+    }
+
+    @Test
+    void putReplacesPreviousText() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.put(5L, "kayak", "for two");
+        index.put(5L, "boat", "for one");
+        Assertions.assertEquals(List.of(), index.search("kayak", 0, 20));
+        Assertions.assertEquals(List.of(5L), index.search("boat", 0, 20));
+        index.remove(5L);
+        Assertions.assertEquals(List.of(), index.search("boat", 0, 20));
+        Assertions.assertEquals(0, index.size());
+    }
+
+    @Test
+    void putAcceptsIdsBeyondIntRangeAndReusesSlots() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        long big = Integer.MAX_VALUE + 10L;
+        index.put(big, "kayak", "for two");
+        index.put(7L, "kayak", "for one");
+        Assertions.assertEquals(List.of(7L, big), index.search("kayak", 0, 20));
+        index.remove(7L);
+        index.put(big + 1, "kayak", "for three");
+        Assertions.assertEquals(List.of(big, big + 1), index.search("kayak", 0, 20));
+        Assertions.assertEquals(List.of(big + 1), index.search("three", 0, 20));
+        Assertions.assertEquals(2, index.size());
+    }
+
+    @Test
+    void searchMatchesLongSubstringsThroughGrams() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.put(1L, "перфоратор", "бурение бетона");
+        index.put(2L, "бур", "сверло по бетону");
+        index.put(3L, "отбойник", "для бетонных стен");
+        Assertions.assertEquals(List.of(1L), index.search("форат", 0, 20));
+        Assertions.assertEquals(Set.of(1L, 2L, 3L), Set.copyOf(index.search("бетон", 0, 20)));
+        Assertions.assertEquals(List.of(3L), index.search("бетонн", 0, 20));
+        Assertions.assertEquals(List.of(2L, 1L), index.search("бур", 0, 20));
+        Assertions.assertEquals(List.of(), index.search("оратор по", 0, 20));
+        Assertions.assertEquals(List.of(), index.search("форатор2", 0, 20));
+    }
+}
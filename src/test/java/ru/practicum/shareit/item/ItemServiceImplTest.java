@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +20,8 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoBooking;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.query.ItemQuery;
+import ru.practicum.shareit.item.search.ItemSearchCache;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.service.UserService;
@@ -27,6 +31,7 @@ import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -34,7 +39,8 @@ import static org.hamcrest.Matchers.*;
 
 @Transactional
 @SpringBootTest(
-        properties = "db.name=test",
+        properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true",
+                "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"},
         webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class ItemServiceImplTest {
@@ -43,6 +49,7 @@ public class ItemServiceImplTest {
     private final UserService userService;
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchCache itemSearchCache;
 
     @Test
     void createItem() {
@@ -51,7 +58,7 @@ public class ItemServiceImplTest {
         ItemDto item = itemService.createItem(itemDto, userSave.getId());
         List<Item> items = itemRepository.findByOwner(userSave, PageRequest.of(0, 20)).getContent();
         Assertions.assertEquals(ItemMapper.toItemDto(items.get(0)), item);
-        items = itemRepository.search("a", PageRequest.of(0, 20)).getContent();
+        items = itemRepository.searchAvailable(ItemQuery.parse("a"), PageRequest.of(0, 20));
         Assertions.assertEquals(ItemMapper.toItemDto(items.get(0)), item);
         TypedQuery<Item> query = em.createQuery("Select i from Item i where i.name = :name", Item.class);
         Item result = query.setParameter("name", itemDto.getName())
@@ -216,6 +223,35 @@ public class ItemServiceImplTest {
     }
 
 
+    @Test
+    void getItemReturnsNearestBookings() {
+        User ow = userService.createUser(makeUser("Пётр", "some@email.com"));
+        User book = userService.createUser(makeUser("booker", "booker@email.com"));
+        ItemDto itemDto = itemService.createItem(makeItemDto("name", "desc", true), ow.getId());
+        Item item = em.find(Item.class, itemDto.getId());
+        User booker = em.find(User.class, book.getId());
+        em.persist(makeBooking(LocalDateTime.now().minusDays(10), LocalDateTime.now().minusDays(9),
+                booker, item, StatusBooking.APPROVED));
+        Booking last = makeBooking(LocalDateTime.now().minusDays(5), LocalDateTime.now().minusDays(4),
+                booker, item, StatusBooking.APPROVED);
+        em.persist(last);
+        em.persist(makeBooking(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                booker, item, StatusBooking.REJECTED));
+        Booking next = makeBooking(LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4),
+                booker, item, StatusBooking.WAITING);
+        em.persist(next);
+        em.persist(makeBooking(LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6),
+                booker, item, StatusBooking.WAITING));
+        em.flush();
+        ItemDtoBooking result = itemService.getItem(itemDto.getId(), ow.getId());
+        assertThat(result.getLastBooking().getId(), equalTo(last.getId()));
+        assertThat(result.getNextBooking().getId(), equalTo(next.getId()));
+        assertThat(result.getNextBooking().getBookerId(), equalTo(book.getId()));
+        result = itemService.getItem(itemDto.getId(), book.getId());
+        assertThat(result.getLastBooking(), nullValue());
+        assertThat(result.getNextBooking(), nullValue());
+    }
+
     @Test
     void getItemsListForUser() {
         User user = userService.createUser(makeUser("Пётр", "some@email.com"));
@@ -239,6 +275,41 @@ public class ItemServiceImplTest {
         }
     }
 
+    @Test
+    void getItemsListForUserAfter() {
+        User user = userService.createUser(makeUser("Пётр", "some@email.com"));
+        ItemDto first = itemService.createItem(makeItemDto("name", "desc", true), user.getId());
+        ItemDto second = itemService.createItem(makeItemDto("name2", "desc2", true), user.getId());
+        ItemDto third = itemService.createItem(makeItemDto("name3", "desc3", true), user.getId());
+        List<ItemDtoBooking> targetItems = itemService.getItemsListForUserAfter(user.getId(), 0L, 2);
+        assertThat(targetItems, hasSize(2));
+        assertThat(targetItems.get(0).getId(), equalTo(first.getId()));
+        assertThat(targetItems.get(1).getId(), equalTo(second.getId()));
+        targetItems = itemService.getItemsListForUserAfter(user.getId(), second.getId(), 2);
+        assertThat(targetItems, hasSize(1));
+        assertThat(targetItems.get(0).getId(), equalTo(third.getId()));
+    }
+
+    @Test
+    void getItemsListForUserStatementCountIsConstant() {
+        User owner = userService.createUser(makeUser("Пётр", "some@email.com"));
+        User booker = userService.createUser(makeUser("booker", "booker@email.com"));
+        addBookedItems(owner, booker, 2);
+        long smallPage = countStatements(() -> itemService.getItemsListForUser(owner.getId(), 0, 20));
+        addBookedItems(owner, booker, 10);
+        List<ItemDtoBooking> targetItems = new ArrayList<>();
+        long bigPage = countStatements(
+                () -> targetItems.addAll(itemService.getItemsListForUser(owner.getId(), 0, 20)));
+        assertThat(targetItems, hasSize(12));
+        assertThat(bigPage, equalTo(smallPage));
+        for (ItemDtoBooking itemDto : targetItems) {
+            assertThat(itemDto.getLastBooking(), notNullValue());
+            assertThat(itemDto.getNextBooking(), notNullValue());
+            assertThat(itemDto.getNextBooking().getBookerId(), equalTo(booker.getId()));
+            assertThat(itemDto.getComments(), hasSize(1));
+        }
+    }
+
     @Test
     void getItemsListForUserWithFailPage() {
         User user = userService.createUser(makeUser("Пётр", "some@email.com"));
@@ -278,6 +349,76 @@ public class ItemServiceImplTest {
         }
     }
 
+    @Test
+    void searchItemsForTextReturnsFullPagesOfAvailableItems() {
+        User user = userService.createUser(makeUser("Пётр", "some@email.com"));
+        List<Long> available = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ItemDto item = itemService.createItem(makeItemDto("палатка " + i, "для похода", i % 2 == 0),
+                    user.getId());
+            if (i % 2 == 0) {
+                available.add(item.getId());
+            }
+        }
+        List<ItemDto> firstPage = itemService.searchItemsForText("палатка", 0, 2);
+        List<ItemDto> secondPage = itemService.searchItemsForText("палатка", 1, 2);
+        assertThat(firstPage, hasSize(2));
+        assertThat(secondPage, hasSize(1));
+        assertThat(firstPage.get(0).getId(), equalTo(available.get(0)));
+        assertThat(firstPage.get(1).getId(), equalTo(available.get(1)));
+        assertThat(secondPage.get(0).getId(), equalTo(available.get(2)));
+
+        itemService.patchItem(makeItemDto(null, null, false), available.get(0), user.getId());
+        assertThat(itemService.searchItemsForText("палатка", 0, 20), hasSize(2));
+    }
+
+    @Test
+    void searchItemsForTextAfterPatch() {
+        User user = userService.createUser(makeUser("Пётр", "some@email.com"));
+        ItemDto item = itemService.createItem(makeItemDto("каяк", "двухместный", true), user.getId());
+        itemService.patchItem(makeItemDto("лодка", null, null), item.getId(), user.getId());
+        assertThat(itemService.searchItemsForText("каяк", 0, 20), hasSize(0));
+        List<ItemDto> targetItems = itemService.searchItemsForText("ЛОДК", 0, 20);
+        assertThat(targetItems, hasSize(1));
+        assertThat(targetItems.get(0).getId(), equalTo(item.getId()));
+        assertThat(targetItems.get(0).getDescription(), equalTo("двухместный"));
+    }
+
+    @Test
+    void searchItemsForTextIsCachedUntilMatchingItemChanges() {
+        User user = userService.createUser(makeUser("Пётр", "some@email.com"));
+        ItemDto kayak = itemService.createItem(makeItemDto("каяк", "двухместный", true), user.getId());
+        itemService.searchItemsForText("каяк", 0, 20);
+        long hits = itemSearchCache.hits();
+        assertThat(itemService.searchItemsForText("КАЯК", 0, 20), hasSize(1));
+        Assertions.assertEquals(hits + 1, itemSearchCache.hits());
+
+        itemService.createItem(makeItemDto("палатка", "трёхместная", true), user.getId());
+        assertThat(itemService.searchItemsForText("каяк", 0, 20), hasSize(1));
+        Assertions.assertEquals(hits + 2, itemSearchCache.hits());
+
+        itemService.patchItem(makeItemDto(null, "одноместный", null), kayak.getId(), user.getId());
+        List<ItemDto> targetItems = itemService.searchItemsForText("каяк", 0, 20);
+        Assertions.assertEquals(hits + 2, itemSearchCache.hits());
+        assertThat(targetItems.get(0).getDescription(), equalTo("одноместный"));
+
+        itemService.createItem(makeItemDto("надувной каяк", "новый", true), user.getId());
+        assertThat(itemService.searchItemsForText("каяк", 0, 20), hasSize(2));
+    }
+
+    @Test
+    void suggestItemNames() {
+        User user = userService.createUser(makeUser("Пётр", "some@email.com"));
+        ItemDto drill = itemService.createItem(makeItemDto("Дрель ударная", "мощная", true), user.getId());
+        itemService.createItem(makeItemDto("дрель аккумуляторная", "лёгкая", true), user.getId());
+        itemService.createItem(makeItemDto("Дрезина", "ручная", false), user.getId());
+        assertThat(itemService.suggestItemNames("др", 10), contains("дрель"));
+        itemService.patchItem(makeItemDto("Перфоратор", null, null), drill.getId(), user.getId());
+        assertThat(itemService.suggestItemNames("пер", 10), contains("перфоратор"));
+        assertThat(itemService.suggestItemNames("уд", 10), empty());
+        Assertions.assertThrows(ValidationException.class, () -> itemService.suggestItemNames("др", 0));
+    }
+
     @Test
     void searchItemsForTextWithEmptyText() {
         User user = userService.createUser(makeUser("Пётр", "some@email.com"));
@@ -376,6 +517,29 @@ public class ItemServiceImplTest {
     }
 
 
+    private void addBookedItems(User owner, User booker, int count) {
+        for (int i = 0; i < count; i++) {
+            ItemDto itemDto = itemService.createItem(makeItemDto("item" + i, "desc" + i, true), owner.getId());
+            Item item = em.find(Item.class, itemDto.getId());
+            User author = em.find(User.class, booker.getId());
+            em.persist(makeBooking(LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2),
+                    author, item, StatusBooking.APPROVED));
+            em.persist(makeBooking(LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3),
+                    author, item, StatusBooking.WAITING));
+            em.persist(new Comment(null, "comment" + i, item, author, LocalDateTime.now()));
+        }
+        em.flush();
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        em.flush();
+        em.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
     private ItemDto makeItemDto(String name, String description, Boolean available) {
         ItemDto itemDto = new ItemDto();
         itemDto.setName(name);
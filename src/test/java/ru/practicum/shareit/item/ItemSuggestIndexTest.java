@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class ItemSuggestIndexTest {
+
+    @Test
+    void suggestRanksCompletionsByItemCount() {
+        ItemSuggestIndex index = new ItemSuggestIndex();
+        index.put(1L, "Дрель ударная");
+        index.put(2L, "Дрель-шуруповёрт");
+        index.put(3L, "Дрезина");
+        index.put(4L, "Ударная дрель, дрель");
+        Assertions.assertEquals(List.of("дрель", "дрезина"), index.suggest("ДрЕ", 10));
+        Assertions.assertEquals(List.of("дрель"), index.suggest("дре", 1));
+        Assertions.assertEquals(List.of("ударная"), index.suggest(" уд ", 10));
+        Assertions.assertEquals(List.of(), index.suggest("пила", 10));
+        Assertions.assertEquals(List.of(), index.suggest("", 10));
+    }
+
+    @Test
+    void suggestBreaksTiesAlphabetically() {
+        ItemSuggestIndex index = new ItemSuggestIndex();
+        index.put(1L, "tent");
+        index.put(2L, "tea set");
+        index.put(3L, "telescope");
+        Assertions.assertEquals(List.of("tea", "telescope"), index.suggest("te", 2));
+    }
+
+    @Test
+    void putReplacesPreviousName() {
+        ItemSuggestIndex index = new ItemSuggestIndex();
+        index.put(5L, "kayak");
+        index.put(6L, "kayak paddle");
+        index.put(5L, "boat");
+        Assertions.assertEquals(List.of("kayak"), index.suggest("k", 10));
+        Assertions.assertEquals(List.of("boat"), index.suggest("b", 10));
+        index.remove(6L);
+        Assertions.assertEquals(List.of(), index.suggest("k", 10));
+        Assertions.assertEquals(1, index.size());
+    }
+
+    @Test
+    void shortPrefixesStayRankedAcrossUpdates() {
+        ItemSuggestIndex index = new ItemSuggestIndex();
+        Map<Long, Set<String>> names = new HashMap<>();
+        Random random = new Random(42);
+        for (int step = 0; step < 5000; step++) {
+            long id = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                names.remove(id);
+            } else {
+                String first = word(random);
+                String second = word(random);
+                index.put(id, first + " " + second);
+                names.put(id, Set.copyOf(List.of(first, second)));
+            }
+        }
+        Map<String, Long> counts = names.values().stream()
+                .flatMap(Set::stream)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        for (String prefix : List.of("a", "b", "c", "ab", "ba", "cc", "abc")) {
+            List<String> expected = counts.entrySet().stream()
+                    .filter(term -> term.getKey().startsWith(prefix))
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(10)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            Assertions.assertEquals(expected, index.suggest(prefix, 10));
+        }
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 1 + random.nextInt(4); i > 0; i--) {
+            word.append((char) ('a' + random.nextInt(3)));
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSuggester;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSuggesterTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ItemSuggester itemSuggester;
+
+    @Test
+    void rebuildKeepsUpdatesCommittedDuringScan() throws Exception {
+        doAnswer(invocation -> {
+            itemSuggester.index(makeItem(1L, "пила", true));
+            itemSuggester.index(makeItem(2L, "палатка", true));
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong("id")).thenReturn(1L);
+            when(rs.getString("name")).thenReturn("дрель");
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        itemSuggester.rebuild();
+
+        Assertions.assertEquals(List.of("палатка", "пила"), itemSuggester.suggest("п", 10));
+        Assertions.assertEquals(List.of(), itemSuggester.suggest("д", 10));
+
+        itemSuggester.index(makeItem(2L, "палатка", false));
+        Assertions.assertEquals(List.of("пила"), itemSuggester.suggest("п", 10));
+    }
+
+    @Test
+    void rollbackDoesNotUndoLaterPatch() {
+        itemSuggester.index(makeItem(1L, "дрель", true));
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> rolledBack;
+        try {
+            itemSuggester.index(makeItem(1L, "пила", true));
+            rolledBack = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        itemSuggester.index(makeItem(1L, "палатка", true));
+
+        rolledBack.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        Assertions.assertEquals(List.of("палатка"), itemSuggester.suggest("п", 10));
+        Assertions.assertEquals(List.of(), itemSuggester.suggest("д", 10));
+    }
+
+    private static Item makeItem(Long id, String name, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription("описание");
+        item.setAvailable(available);
+        return item;
+    }
+}
@@ -10,6 +10,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.controller.ItemRequestController;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -117,4 +118,16 @@ public class ItemRequestControllerTest {
                 .andExpect(jsonPath("$.items", is(itemRequestDto.getItems())));
     }
 
+    @Test
+    void findMatches() throws Exception {
+        when(itemRequestService.findMatches(1L, 2L))
+                .thenReturn(List.of(new ItemDto(5L, "дрель", "ударная", true, null)));
+        mvc.perform(get("/requests/1/matches")
+                        .header("X-Sharer-User-Id", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(5L), Long.class))
+                .andExpect(jsonPath("$[0].name", is("дрель")));
+    }
 }
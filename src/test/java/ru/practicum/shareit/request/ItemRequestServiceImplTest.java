@@ -1,11 +1,16 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -25,7 +30,8 @@ import static org.hamcrest.Matchers.notNullValue;
 
 @Transactional
 @SpringBootTest(
-        properties = "db.name=test",
+        properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true",
+                "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"},
         webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class ItemRequestServiceImplTest {
@@ -33,6 +39,7 @@ public class ItemRequestServiceImplTest {
     private final UserService userService;
     private final ItemRequestService itemRequestService;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemService itemService;
 
     @Test
     void createRequest() {
@@ -78,6 +85,25 @@ public class ItemRequestServiceImplTest {
         assertThat(result.get(0).getCreated(), notNullValue());
     }
 
+    @Test
+    void getRequestForUserStatementCountIsConstant() {
+        User requestor = userService.createUser(makeUser("Пётр", "some@email.com"));
+        User owner = userService.createUser(makeUser("owner", "owner@email.com"));
+        addRequestsWithItems(requestor, owner, 2);
+        long few = countStatements(() -> itemRequestService.getRequestForUser(requestor.getId()));
+        addRequestsWithItems(requestor, owner, 20);
+        long many = countStatements(() -> itemRequestService.getRequestForUser(requestor.getId()));
+        Assertions.assertEquals(few, many);
+        Assertions.assertEquals(3, many);
+
+        List<ItemRequestDto> result = itemRequestService.getRequestForUser(requestor.getId());
+        assertThat(result, hasSize(22));
+        for (ItemRequestDto request : result) {
+            assertThat(request.getItems(), hasSize(2));
+            assertThat(request.getItems(), everyItem(hasProperty("requestId", equalTo(request.getId()))));
+        }
+    }
+
     @Test
     void findAllRequest() {
         User user1 = userService.createUser(makeUser("Пётр", "some@email.com"));
@@ -91,6 +117,74 @@ public class ItemRequestServiceImplTest {
         assertThat(result.get(0).getCreated(), notNullValue());
     }
 
+    @Test
+    void findAllRequestExcludesOwnRequestsAndKeepsPageSize() {
+        User user1 = userService.createUser(makeUser("Пётр", "some@email.com"));
+        User user2 = userService.createUser(makeUser("jo", "jo@email.com"));
+        for (int i = 0; i < 3; i++) {
+            ItemRequest own = new ItemRequest();
+            own.setDescription("своё" + i);
+            itemRequestService.createRequest(own, user2.getId());
+        }
+        addRequestsWithItems(user1, user2, 3);
+        List<ItemRequestDto> firstPage = itemRequestService.findAllRequest(0, 2, user2.getId());
+        List<ItemRequestDto> secondPage = itemRequestService.findAllRequest(1, 2, user2.getId());
+        assertThat(firstPage, hasSize(2));
+        assertThat(secondPage, hasSize(1));
+        assertThat(firstPage.get(0).getDescription(), equalTo("нужна вещь 2"));
+        assertThat(secondPage.get(0).getDescription(), equalTo("нужна вещь 0"));
+        assertThat(secondPage.get(0).getItems(), hasSize(2));
+        assertThat(itemRequestService.findAllRequest(0, 20, user1.getId()), hasSize(3));
+
+        long few = countStatements(() -> itemRequestService.findAllRequest(0, 20, user2.getId()));
+        addRequestsWithItems(user1, user2, 10);
+        long many = countStatements(() -> itemRequestService.findAllRequest(0, 20, user2.getId()));
+        Assertions.assertEquals(few, many);
+        Assertions.assertThrows(NotFoundException.class, () -> itemRequestService.findAllRequest(0, 20, 999L));
+    }
+
+    @Test
+    void findAllRequestAfter() {
+        User user1 = userService.createUser(makeUser("Пётр", "some@email.com"));
+        User user2 = userService.createUser(makeUser("jo", "@email.com"));
+        for (int i = 0; i < 3; i++) {
+            ItemRequest itemRequest = new ItemRequest();
+            itemRequest.setDescription("описание" + i);
+            itemRequestService.createRequest(itemRequest, user1.getId());
+        }
+        ItemRequest own = new ItemRequest();
+        own.setDescription("своё");
+        itemRequestService.createRequest(own, user2.getId());
+        List<ItemRequestDto> firstPage = itemRequestService.findAllRequestAfter("", 2, user2.getId());
+        assertThat(firstPage, hasSize(2));
+        ItemRequestDto last = firstPage.get(1);
+        List<ItemRequestDto> secondPage = itemRequestService.findAllRequestAfter(
+                last.getCreated() + "," + last.getId(), 2, user2.getId());
+        assertThat(secondPage, hasSize(1));
+        assertThat(secondPage.get(0).getDescription(), not(equalTo("своё")));
+    }
+
+    private void addRequestsWithItems(User requestor, User owner, int count) {
+        for (int i = 0; i < count; i++) {
+            ItemRequest itemRequest = new ItemRequest();
+            itemRequest.setDescription("нужна вещь " + i);
+            ItemRequestDto request = itemRequestService.createRequest(itemRequest, requestor.getId());
+            for (int j = 0; j < 2; j++) {
+                ItemDto itemDto = new ItemDto(null, "вещь " + i + "-" + j, "описание", true, request.getId());
+                itemService.createItem(itemDto, owner.getId());
+            }
+        }
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        em.flush();
+        em.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
     private User makeUser(String name, String email) {
         User user = new User();
         user.setName(name);
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.request.matching.RequestMatchIndex;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class RequestMatchIndexTest {
+
+    @Test
+    void matchScoresRequestsByRareSharedWords() {
+        RequestMatchIndex index = makeIndex();
+        Assertions.assertEquals(List.of(1L), match(index, 20L, 0.5));
+        Assertions.assertEquals(List.of(1L, 3L), match(index, 20L, 0.2));
+        Assertions.assertTrue(index.match(20L, "Велосипед", "горный", 0.1, 10).isEmpty());
+    }
+
+    @Test
+    void matchSkipsOwnRequestsAndRespectsLimit() {
+        RequestMatchIndex index = makeIndex();
+        Assertions.assertEquals(List.of(3L), match(index, 10L, 0.2));
+        Assertions.assertEquals(1, index.match(20L, "Дрель ударная", "мощная, с кейсом", 0.2, 1).size());
+    }
+
+    @Test
+    void removeClosesRequest() {
+        RequestMatchIndex index = makeIndex();
+        index.remove(1L);
+        Assertions.assertEquals(List.of(3L), match(index, 20L, 0.2));
+        Assertions.assertEquals(2, index.size());
+    }
+
+    private List<Long> match(RequestMatchIndex index, Long ownerId, double minScore) {
+        return index.match(ownerId, "Дрель ударная", "мощная, с кейсом", minScore, 10).stream()
+                .map(RequestMatchIndex.Match::getRequestId)
+                .collect(Collectors.toList());
+    }
+
+    private RequestMatchIndex makeIndex() {
+        RequestMatchIndex index = new RequestMatchIndex();
+        index.put(1L, 10L, "Нужна ударная дрель");
+        index.put(2L, 11L, "Ищу палатку для похода");
+        index.put(3L, 12L, "дрель или перфоратор");
+        return index;
+    }
+}
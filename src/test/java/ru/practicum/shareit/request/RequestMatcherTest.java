@@ -0,0 +1,132 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.matching.RequestMatcher;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserCache;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class RequestMatcherTest {
+    private final JdbcTemplate jdbcTemplate;
+    private final RequestMatcher requestMatcher;
+    private final ItemRequestService itemRequestService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final UserCache userCache;
+
+    @AfterEach
+    void cleanUp() {
+        requestMatcher.awaitPending();
+        for (String table : List.of("request_matches", "comments", "bookings", "items", "requests", "users")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+        userCache.clear();
+        requestMatcher.rebuild();
+        requestMatcher.awaitPending();
+    }
+
+    @Test
+    void createdItemIsMatchedToOpenRequests() {
+        User requestor = userService.createUser(makeUser("Пётр", "some@email.com"));
+        User owner = userService.createUser(makeUser("owner", "owner@email.com"));
+        ItemRequestDto drillRequest = createRequest("Нужна ударная дрель", requestor);
+        ItemRequestDto tentRequest = createRequest("Ищу палатку для похода", requestor);
+
+        ItemDto drill = itemService.createItem(makeItemDto("Дрель ударная", "мощная, с кейсом", null), owner.getId());
+        itemService.createItem(makeItemDto("Велосипед", "горный", null), owner.getId());
+        itemService.createItem(makeItemDto("Ударная дрель", "своя", null), requestor.getId());
+        requestMatcher.awaitPending();
+
+        assertThat(ids(itemRequestService.findMatches(drillRequest.getId(), requestor.getId())),
+                contains(drill.getId()));
+        assertThat(itemRequestService.findMatches(tentRequest.getId(), requestor.getId()), empty());
+        Assertions.assertThrows(NotFoundException.class,
+                () -> itemRequestService.findMatches(drillRequest.getId(), owner.getId()));
+
+        itemService.patchItem(makeItemDto("Палатка", "возьмите палатку для похода", null), drill.getId(),
+                owner.getId());
+        requestMatcher.awaitPending();
+        assertThat(itemRequestService.findMatches(drillRequest.getId(), requestor.getId()), empty());
+        assertThat(ids(itemRequestService.findMatches(tentRequest.getId(), requestor.getId())),
+                contains(drill.getId()));
+
+        itemService.patchItem(makeItemDto(null, null, null, false), drill.getId(), owner.getId());
+        requestMatcher.awaitPending();
+        assertThat(itemRequestService.findMatches(tentRequest.getId(), requestor.getId()), empty());
+    }
+
+    @Test
+    void answeredRequestIsNotMatchedAgain() {
+        User requestor = userService.createUser(makeUser("Пётр", "some@email.com"));
+        User owner = userService.createUser(makeUser("owner", "owner@email.com"));
+        ItemRequestDto request = createRequest("Нужна ударная дрель", requestor);
+        itemService.createItem(makeItemDto("Дрель", "ударная", request.getId()), owner.getId());
+        itemService.createItem(makeItemDto("Дрель ударная", "новая", null), owner.getId());
+        requestMatcher.awaitPending();
+        assertThat(itemRequestService.findMatches(request.getId(), requestor.getId()), empty());
+    }
+
+    @Test
+    void answeringRequestDropsItsMatches() {
+        User requestor = userService.createUser(makeUser("Пётр", "some@email.com"));
+        User owner = userService.createUser(makeUser("owner", "owner@email.com"));
+        ItemRequestDto request = createRequest("Нужна ударная дрель", requestor);
+        ItemDto drill = itemService.createItem(makeItemDto("Дрель ударная", "мощная", null), owner.getId());
+        requestMatcher.awaitPending();
+        assertThat(ids(itemRequestService.findMatches(request.getId(), requestor.getId())),
+                contains(drill.getId()));
+
+        itemService.createItem(makeItemDto("Дрель", "ударная", request.getId()), owner.getId());
+        assertThat(itemRequestService.findMatches(request.getId(), requestor.getId()), empty());
+        requestMatcher.awaitPending();
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from request_matches where request_id = ?", Integer.class, request.getId()));
+    }
+
+    private ItemRequestDto createRequest(String description, User requestor) {
+        ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setDescription(description);
+        return itemRequestService.createRequest(itemRequest, requestor.getId());
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+
+    private ItemDto makeItemDto(String name, String description, Long requestId) {
+        return makeItemDto(name, description, requestId, true);
+    }
+
+    private ItemDto makeItemDto(String name, String description, Long requestId, Boolean available) {
+        return new ItemDto(null, name, description, available, requestId);
+    }
+
+    private User makeUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.user.dao.UserCache;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.CallerContext;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.transaction.Transactional;
+
+@Transactional
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class CallerContextTest {
+    private final UserService userService;
+    private final UserRepository userRepository;
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void findResolvesUserOncePerRequest() {
+        User user = userService.createUser(makeUser("Пётр", "some@email.com"));
+        UserCache userCache = new UserCache(userRepository, 0, 0);
+        CallerContext callerContext = new CallerContext(userCache);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        Assertions.assertEquals(user, callerContext.find(user.getId()).orElseThrow());
+        Assertions.assertEquals(user, callerContext.find(user.getId()).orElseThrow());
+        Assertions.assertTrue(callerContext.find(user.getId() + 1000).isEmpty());
+        Assertions.assertTrue(callerContext.find(user.getId() + 1000).isEmpty());
+        Assertions.assertEquals(2, userCache.misses());
+
+        callerContext.forget(user.getId());
+        callerContext.find(user.getId());
+        Assertions.assertEquals(3, userCache.misses());
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        callerContext.find(user.getId());
+        Assertions.assertEquals(4, userCache.misses());
+    }
+
+    @Test
+    void findOutsideRequestGoesToCache() {
+        User user = userService.createUser(makeUser("Пётр", "some@email.com"));
+        UserCache userCache = new UserCache(userRepository, 0, 0);
+        CallerContext callerContext = new CallerContext(userCache);
+
+        callerContext.find(user.getId());
+        callerContext.find(user.getId());
+        Assertions.assertEquals(2, userCache.misses());
+    }
+
+    private User makeUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+}
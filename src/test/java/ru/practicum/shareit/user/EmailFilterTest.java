@@ -0,0 +1,60 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.user.dao.EmailFilter;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.transaction.Transactional;
+
+@Transactional
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class EmailFilterTest {
+    private final JdbcTemplate jdbcTemplate;
+    private final UserService userService;
+
+    @Test
+    void rebuildLoadsExistingEmailsAndRejectsMostUnknownOnes() {
+        for (int i = 0; i < 100; i++) {
+            userService.createUser(makeUser("user" + i, "user" + i + "@email.com"));
+        }
+        EmailFilter filter = new EmailFilter(jdbcTemplate, true, 1000, 0.01);
+        Assertions.assertTrue(filter.mightContain("unknown@email.com"));
+
+        filter.rebuild();
+        filter.add("added@email.com");
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertTrue(filter.mightContain("user" + i + "@email.com"));
+        }
+        Assertions.assertTrue(filter.mightContain("added@email.com"));
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("other" + i + "@email.com")) {
+                falsePositives++;
+            }
+        }
+        Assertions.assertTrue(falsePositives < 300, "ложных срабатываний: " + falsePositives);
+    }
+
+    @Test
+    void disabledFilterAlwaysDefersToDatabase() {
+        EmailFilter filter = new EmailFilter(jdbcTemplate, false, 1000, 0.01);
+        filter.rebuild();
+        Assertions.assertTrue(filter.mightContain("unknown@email.com"));
+    }
+
+    private User makeUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+}
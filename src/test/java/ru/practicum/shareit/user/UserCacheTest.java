@@ -0,0 +1,83 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.user.dao.UserCache;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class UserCacheTest {
+    private final UserCache userCache;
+    private final UserService userService;
+    private final UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+        userCache.clear();
+    }
+
+    @Test
+    void findLoadsUserOnceAndReturnsCopies() {
+        User user = userService.createUser(makeUser("Пётр", "some@email.com"));
+        long misses = userCache.misses();
+        long hits = userCache.hits();
+
+        User first = userCache.find(user.getId()).orElseThrow();
+        User second = userCache.find(user.getId()).orElseThrow();
+
+        Assertions.assertEquals(user, first);
+        Assertions.assertEquals(first, second);
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(misses + 1, userCache.misses());
+        Assertions.assertEquals(hits + 1, userCache.hits());
+        Assertions.assertTrue(userCache.find(user.getId() + 1000).isEmpty());
+    }
+
+    @Test
+    void patchAndDeleteInvalidateCachedUser() {
+        User user = userService.createUser(makeUser("Пётр", "some@email.com"));
+        userCache.find(user.getId());
+
+        userService.patchUser(makeUser("Иван", null), user.getId());
+        Assertions.assertEquals("Иван", userCache.find(user.getId()).orElseThrow().getName());
+
+        userService.deleteUser(user.getId());
+        Assertions.assertTrue(userCache.find(user.getId()).isEmpty());
+    }
+
+    @Test
+    void entriesExpireAndAreBoundedBySize() {
+        User first = userService.createUser(makeUser("first", "first@email.com"));
+        User second = userService.createUser(makeUser("second", "second@email.com"));
+
+        UserCache expiring = new UserCache(userRepository, 10, 0);
+        expiring.find(first.getId());
+        expiring.find(first.getId());
+        Assertions.assertEquals(0, expiring.hits());
+        Assertions.assertEquals(2, expiring.misses());
+
+        UserCache bounded = new UserCache(userRepository, 1, 300);
+        bounded.find(first.getId());
+        bounded.find(second.getId());
+        bounded.find(first.getId());
+        Assertions.assertEquals(1, bounded.size());
+        Assertions.assertEquals(0, bounded.hits());
+        Assertions.assertEquals(2, bounded.evictions());
+    }
+
+    private User makeUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+}
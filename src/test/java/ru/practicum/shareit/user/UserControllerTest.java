@@ -7,28 +7,39 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.controller.UserController;
+import ru.practicum.shareit.user.dto.UserImportResult;
+import ru.practicum.shareit.user.service.UserImporter;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
 public class UserControllerTest {
     @Mock
     private UserService userService;
+    @Mock
+    private UserImporter userImporter;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
     @InjectMocks
     private UserController controller;
 
@@ -74,9 +85,10 @@ public class UserControllerTest {
 
     @Test
     void findAllUsers() throws Exception {
-        when(userService.findAllUsers())
+        when(userService.findUsersAfter(0L, 500))
                 .thenReturn(List.of(user));
         mvc.perform(get("/users"))
+                .andExpect(request().asyncNotStarted())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(user.getId()), Long.class))
@@ -84,6 +96,36 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$[0].email", is(user.getEmail())));
     }
 
+    @Test
+    void findAllUsersReadsChunksUntilShortOne() throws Exception {
+        List<User> firstChunk = LongStream.rangeClosed(1, 500)
+                .mapToObj(id -> new User(id, "name" + id, id + "email@"))
+                .collect(Collectors.toList());
+        when(userService.findUsersAfter(0L, 500))
+                .thenReturn(firstChunk);
+        when(userService.findUsersAfter(500L, 500))
+                .thenReturn(List.of(new User(501L, "name501", "501email@")));
+        mvc.perform(get("/users"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(501)))
+                .andExpect(jsonPath("$[0].id", is(1L), Long.class))
+                .andExpect(jsonPath("$[500].id", is(501L), Long.class))
+                .andExpect(jsonPath("$[500].email", is("501email@")));
+    }
+
+    @Test
+    void findUsersAfter() throws Exception {
+        when(userService.findUsersAfter(0L, 2))
+                .thenReturn(List.of(user));
+        mvc.perform(get("/users?size=2"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(user.getId()), Long.class));
+    }
+
     @Test
     void patchUser() throws Exception {
         when(userService.patchUser(any(), any()))
@@ -114,5 +156,27 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.email", is(user.getEmail())));
     }
 
+    @Test
+    void importUsers() throws Exception {
+        when(userImporter.importUsers(any(), any()))
+                .thenReturn(new UserImportResult(1, 1, 5, 400,
+                        List.of(new UserImportResult.RowError(3, "email@", "почта занята"))));
+        mvc.perform(post("/users/import")
+                        .content("name,email\nname,email@\nname,email@")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType("text/csv")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.rowsPerSecond", is(400)))
+                .andExpect(jsonPath("$.errors[0].line", is(3)))
+                .andExpect(jsonPath("$.errors[0].email", is("email@")));
+        mvc.perform(post("/users/import")
+                        .content(mapper.writeValueAsString(user))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
 
 }
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.user.dao.EmailFilter;
+import ru.practicum.shareit.user.dao.UserCache;
+import ru.practicum.shareit.user.dto.UserImportResult;
+import ru.practicum.shareit.user.service.UserImporter;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class UserImporterTest {
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final EmailFilter emailFilter;
+    private final UserService userService;
+    private final UserCache userCache;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from users");
+        userCache.clear();
+    }
+
+    @Test
+    void importNdjsonReportsRejectedRowsWithoutAbortingBatch() {
+        userService.createUser(new User(null, "Пётр", "taken@email.com"));
+        String body = String.join("\n",
+                "{\"name\":\"Анна\",\"email\":\"anna@email.com\"}",
+                "{\"name\":\"Борис\",\"email\":\"boris@email.com\"}",
+                "",
+                "{\"name\":\"Пётр\",\"email\":\"taken@email.com\"}",
+                "{\"name\":\"Анна 2\",\"email\":\"anna@email.com\"}",
+                "{\"name\":\"\",\"email\":\"empty@email.com\"}",
+                "{\"name\":\"Вера\",\"email\":\"vera.email.com\"}",
+                "{\"name\":",
+                "{\"name\":\"Глеб\",\"email\":\"gleb@email.com\"}");
+
+        UserImportResult result = importer(2).importUsers(stream(body), MediaType.valueOf("application/x-ndjson"));
+
+        Assertions.assertEquals(3, result.getImported());
+        Assertions.assertEquals(5, result.getFailed());
+        assertThat(result.getErrors().stream().map(UserImportResult.RowError::getLine).collect(Collectors.toList()),
+                contains(4L, 5L, 6L, 7L, 8L));
+        Assertions.assertEquals("пользователь с такой почтой уже существует", result.getErrors().get(1).getMessage());
+        Assertions.assertEquals("Имя пользователя не может быть пустым", result.getErrors().get(2).getMessage());
+        Assertions.assertEquals("некорректная строка", result.getErrors().get(4).getMessage());
+        assertThat(emails(), containsInAnyOrder("taken@email.com", "anna@email.com", "boris@email.com",
+                "gleb@email.com"));
+        Assertions.assertEquals("Анна", jdbcTemplate.queryForObject(
+                "select name from users where email = 'anna@email.com'", String.class));
+    }
+
+    @Test
+    void importCsvSkipsHeaderAndUnquotesFields() {
+        String body = String.join("\r\n",
+                "name,email",
+                "\"Иванов, Иван\",ivan@email.com",
+                "\"Пётр \"\"Петя\"\"\", petya@email.com",
+                "без запятой",
+                ",noname@email.com",
+                "Иван,ivan@email.com");
+
+        UserImportResult result = importer(1000).importUsers(stream(body), MediaType.valueOf("text/csv"));
+
+        Assertions.assertEquals(2, result.getImported());
+        Assertions.assertEquals(3, result.getFailed());
+        assertThat(result.getErrors().stream().map(UserImportResult.RowError::getLine).collect(Collectors.toList()),
+                contains(4L, 5L, 6L));
+        assertThat(jdbcTemplate.queryForList("select name from users", String.class),
+                containsInAnyOrder("Иванов, Иван", "Пётр \"Петя\""));
+    }
+
+    @Test
+    void importLimitsReportedErrors() {
+        String body = "{}\n{}\n{}\n";
+
+        UserImporter importer = new UserImporter(jdbcTemplate, transactionManager, objectMapper, emailFilter, 10, 2);
+        UserImportResult result = importer.importUsers(stream(body), MediaType.valueOf("application/x-ndjson"));
+
+        Assertions.assertEquals(0, result.getImported());
+        Assertions.assertEquals(3, result.getFailed());
+        Assertions.assertEquals(2, result.getErrors().size());
+    }
+
+    private UserImporter importer(int batchSize) {
+        return new UserImporter(jdbcTemplate, transactionManager, objectMapper, emailFilter, batchSize, 100);
+    }
+
+    private List<String> emails() {
+        return jdbcTemplate.queryForList("select email from users", String.class);
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
@@ -46,8 +47,8 @@ public class UserServiceImplTest {
         User user = makeUser("Пётр", "some@email.com");
         User user2 = makeUser("Пётр", "some@email.com");
         service.createUser(user);
-        RuntimeException e = Assertions.assertThrows(RuntimeException.class, () -> service.createUser(user2));
-        Assertions.assertEquals(e.getMessage(), null);
+        ConflictException e = Assertions.assertThrows(ConflictException.class, () -> service.createUser(user2));
+        Assertions.assertEquals(e.getMessage(), "пользователь с такой почтой уже существует");
     }
 
     @Test
@@ -107,6 +108,17 @@ public class UserServiceImplTest {
         assertThat(result.getEmail(), equalTo(newUser.getEmail()));
     }
 
+    @Test
+    void patchUserWithTakenEmail() {
+        User user = service.createUser(makeUser("Пётр", "some@email.com"));
+        service.createUser(makeUser("Павел", "new@email.com"));
+        ConflictException e = Assertions.assertThrows(ConflictException.class,
+                () -> service.patchUser(makeUser(null, "new@email.com"), user.getId()));
+        Assertions.assertEquals(e.getMessage(), "пользователь с такой почтой уже существует");
+        User same = service.patchUser(makeUser("Пётр", "some@email.com"), user.getId());
+        Assertions.assertEquals("some@email.com", same.getEmail());
+    }
+
     @Test
     void patchUserWithFailName() {
         User user = makeUser("Пётр", "some@email.com");
@@ -151,6 +163,29 @@ public class UserServiceImplTest {
         assertThat(targetUsers, hasSize(0));
     }
 
+    @Test
+    void findUsersAfterPagesById() {
+        User first = service.createUser(makeUser("1", "1some@email.com"));
+        User second = service.createUser(makeUser("2", "2some@email.com"));
+        User third = service.createUser(makeUser("3", "3some@email.com"));
+
+        assertThat(service.findUsersAfter(0L, 2), contains(first, second));
+        assertThat(service.findUsersAfter(second.getId(), 2), contains(third));
+        assertThat(service.findUsersAfter(third.getId(), 2), empty());
+        Assertions.assertThrows(ValidationException.class, () -> service.findUsersAfter(0L, 0));
+        Assertions.assertThrows(ValidationException.class, () -> service.findUsersAfter(-1L, 2));
+    }
+
+    @Test
+    void findUsersAfterReturnsDetachedUsers() {
+        User user = service.createUser(makeUser("1", "1some@email.com"));
+
+        List<User> page = service.findUsersAfter(0L, 2);
+
+        assertThat(page, contains(user));
+        Assertions.assertFalse(em.contains(page.get(0)));
+    }
+
 
     private User makeUser(String name, String email) {
         User user = new User();